@@ -0,0 +1,96 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures EmployeeAdapter.onBindViewHolder on a device: the first bind of each row,
+ * which formats its display model, and rebinding rows whose models are cached, as
+ * when a fling scrolls back over a screen. Results go to logcat under the
+ * "BindBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class EmployeeAdapterBindBenchmark {
+
+    private static final String TAG = "BindBenchmark";
+    private static final int EMPLOYEES = 1000;
+    private static final int WINDOW = 100; // Rows rebound per pass, within the model cache
+    private static final int PASSES = 200;
+
+    @Test
+    public void bindCost() {
+        Context context = new ContextThemeWrapper(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                R.style.Theme_RecordMaintenance);
+        EmployeeStore store = new EmployeeStore();
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(employee(i));
+        }
+        store.replaceAll(employees);
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            EmployeeAdapter adapter = new EmployeeAdapter(context, store);
+            try {
+                assertEquals(EMPLOYEES, adapter.getItemCount());
+                EmployeeAdapter.EmployeeViewHolder holder =
+                        adapter.onCreateViewHolder(new FrameLayout(context), 0);
+
+                long start = SystemClock.elapsedRealtimeNanos();
+                for (int position = 0; position < EMPLOYEES; position++) {
+                    adapter.onBindViewHolder(holder, position);
+                }
+                long firstBind = (SystemClock.elapsedRealtimeNanos() - start) / EMPLOYEES;
+
+                int gcBefore = gcCount();
+                start = SystemClock.elapsedRealtimeNanos();
+                for (int pass = 0; pass < PASSES; pass++) {
+                    for (int position = 0; position < WINDOW; position++) {
+                        adapter.onBindViewHolder(holder, position);
+                    }
+                }
+                long rebind = (SystemClock.elapsedRealtimeNanos() - start) / ((long) PASSES * WINDOW);
+                int gcs = gcCount() - gcBefore;
+
+                Log.i(TAG, "first bind " + firstBind + " ns/row, rebind " + rebind
+                        + " ns/row, " + gcs + " GCs over " + (PASSES * WINDOW) + " rebinds");
+            } finally {
+                adapter.release();
+            }
+        });
+    }
+
+    private static int gcCount() {
+        String count = Debug.getRuntimeStat("art.gc.gc-count");
+        return count != null ? Integer.parseInt(count) : 0;
+    }
+
+    private static Employee employee(int i) {
+        Employee employee = new Employee();
+        employee.setUid("uid-" + i);
+        employee.setEmpId("EMP" + i);
+        employee.setEmpName("Employee " + i);
+        employee.setEmpEmail("employee" + i + "@example.com");
+        employee.setDepartment(i % 3 == 0 ? "Engineering" : "Finance");
+        employee.setDesignation(i % 5 == 0 ? "Manager" : "Developer");
+        employee.setCity(i % 7 == 0 ? null : "Pune");
+        employee.setJoinedDate((1 + i % 28) + "/0" + (1 + i % 9) + "/2023");
+        employee.setSalary(30000 + i * 37.5);
+        return employee;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.StorageMetadata;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+/**
+ * Uploads photos to the Firebase Storage emulator. Skipped unless the app is
+ * built against one, with Storage rules that allow writes to profile_photos/:
+ *   firebase emulators:start --only storage
+ *   ./gradlew connectedEmployeeDebugAndroidTest -PstorageEmulatorHost=10.0.2.2
+ */
+@RunWith(AndroidJUnit4.class)
+public class PhotoUploaderTest {
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        assumeFalse("No Storage emulator configured", BuildConfig.STORAGE_EMULATOR_HOST.isEmpty());
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    @Test
+    public void upload_storesWholeFile() throws Exception {
+        File photo = photo("EMP1_20250101_120000.jpg", 600 * 1024);
+        try {
+            String remotePath = new PhotoUploader(context).upload(photo);
+
+            assertEquals("profile_photos/EMP1_20250101_120000.jpg", remotePath);
+            StorageMetadata metadata = Tasks.await(PhotoUploader.storage().getReference(remotePath).getMetadata());
+            assertEquals(photo.length(), metadata.getSizeBytes());
+            assertEquals("image/jpeg", metadata.getContentType());
+            assertFalse(new PhotoUploader(context).discardSession(photo));
+        } finally {
+            photo.delete();
+        }
+    }
+
+    @Test
+    public void upload_skipsContentAddressedPhotoAlreadyUploaded() throws Exception {
+        // A fresh hash-like name each run, so the first upload really uploads
+        byte[] hash = new byte[16];
+        new Random().nextBytes(hash);
+        File photo = photo(PhotoStore.toHex(hash, 32) + ".jpg", 64 * 1024);
+        try {
+            PhotoUploader uploader = new PhotoUploader(context);
+            String remotePath = uploader.upload(photo);
+            long uploadedAt = Tasks.await(PhotoUploader.storage().getReference(remotePath).getMetadata())
+                    .getUpdatedTimeMillis();
+
+            assertEquals(remotePath, uploader.upload(photo));
+            assertEquals(uploadedAt, Tasks.await(PhotoUploader.storage().getReference(remotePath).getMetadata())
+                    .getUpdatedTimeMillis());
+        } finally {
+            photo.delete();
+        }
+    }
+
+    private File photo(String name, int length) throws IOException {
+        File photo = new File(context.getCacheDir(), name);
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        try (FileOutputStream out = new FileOutputStream(photo)) {
+            out.write(bytes);
+        }
+        return photo;
+    }
+}
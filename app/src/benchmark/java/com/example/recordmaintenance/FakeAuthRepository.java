@@ -0,0 +1,48 @@
+package com.example.recordmaintenance;
+
+/**
+ * Stand-in for AuthRepository in the benchmark build type: a user is always signed
+ * in, as an admin in the admin flavor and as the first seeded employee otherwise,
+ * so LoginActivity goes straight to the flavor's home screen.
+ */
+public class FakeAuthRepository extends AuthRepository {
+
+    private static final String ADMIN_UID = "fake-admin";
+
+    public FakeAuthRepository() {
+        super();
+    }
+
+    @Override
+    public boolean isUserSignedIn() {
+        return true;
+    }
+
+    @Override
+    public String getCurrentUserUid() {
+        return BuildConfig.IS_ADMIN ? ADMIN_UID : FakeEmployeeRepository.roster().get(0).getUid();
+    }
+
+    @Override
+    public void getUserRole(String uid, RoleCallback callback) {
+        if (BuildConfig.IS_ADMIN) {
+            callback.onRoleRetrieved("admin", null);
+        } else {
+            callback.onRoleRetrieved("employee", FakeEmployeeRepository.roster().get(0).getEmpId());
+        }
+    }
+
+    @Override
+    public void signIn(String email, String password, AuthCallback callback) {
+        if (BuildConfig.IS_ADMIN) {
+            callback.onSuccess("admin", null);
+        } else {
+            callback.onSuccess("employee", FakeEmployeeRepository.roster().get(0).getEmpId());
+        }
+    }
+
+    @Override
+    public void signOut() {
+        // Stays signed in so every benchmark iteration starts the same way
+    }
+}
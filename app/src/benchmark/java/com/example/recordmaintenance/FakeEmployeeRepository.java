@@ -0,0 +1,164 @@
+package com.example.recordmaintenance;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * In-memory stand-in for EmployeeRepository in the benchmark build type.
+ * Serves a deterministic roster through the same paging and sync callbacks as
+ * Firebase, delivered on the main thread like the Firebase listeners.
+ * Only the read paths exercised by the benchmarks are faked; built without Firebase
+ * or the local cache, so any other call fails.
+ */
+public class FakeEmployeeRepository extends EmployeeRepository {
+
+    /** Roster size; large enough for search and scrolling costs to show up */
+    public static final int SEED_COUNT = 5000;
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Diya", "Ishaan", "Meera", "Kabir", "Ananya", "Rohan", "Saanvi", "Vikram", "Priya"
+    };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Iyer", "Patel", "Reddy", "Khan", "Nair", "Gupta", "Das", "Menon", "Joshi"
+    };
+    private static final String[] DEPARTMENTS = {
+            "Engineering", "Software Development", "HR", "Finance", "Sales", "Operations"
+    };
+    private static final String[] DESIGNATIONS = {
+            "Developer", "Senior Developer", "Manager", "Analyst", "Executive", "Lead"
+    };
+    private static final String[] CITIES = {
+            "Pune", "Bengaluru", "Chennai", "Hyderabad", "Mumbai", "Delhi", "Kochi"
+    };
+
+    private static List<Employee> roster;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private Runnable pendingSync;
+
+    public FakeEmployeeRepository() {
+        super();
+    }
+
+    /**
+     * The seeded employees, ordered by uid like the Firebase query
+     */
+    static synchronized List<Employee> roster() {
+        if (roster == null) {
+            List<Employee> employees = new ArrayList<>(SEED_COUNT);
+            for (int i = 0; i < SEED_COUNT; i++) {
+                employees.add(seedEmployee(i));
+            }
+            roster = Collections.unmodifiableList(employees);
+        }
+        return roster;
+    }
+
+    private static Employee seedEmployee(int i) {
+        Employee employee = new Employee();
+        employee.setUid(String.format(Locale.US, "fake-uid-%05d", i));
+        employee.setEmpId(String.format(Locale.US, "EMP%05d", i));
+        String first = FIRST_NAMES[i % FIRST_NAMES.length];
+        String last = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+        employee.setEmpName(first + " " + last);
+        employee.setEmpEmail(first.toLowerCase(Locale.US) + "." + last.toLowerCase(Locale.US) + i + "@example.com");
+        employee.setRole("employee");
+        employee.setDepartment(DEPARTMENTS[i % DEPARTMENTS.length]);
+        employee.setDesignation(DESIGNATIONS[(i / 3) % DESIGNATIONS.length]);
+        employee.setCity(CITIES[(i / 7) % CITIES.length]);
+        employee.setCountry("India");
+        employee.setJoinedDate(String.format(Locale.US, "%02d/%02d/%d", 1 + i % 28, 1 + i % 12, 2015 + i % 10));
+        employee.setSalary(25000 + (i * 7919L) % 175000);
+        employee.setPasswordChanged(true);
+        return employee;
+    }
+
+    @Override
+    public void getCachedEmployees(EmployeeListCallback callback) {
+        // Always a cold cache, so every run loads the same way
+        mainHandler.post(() -> callback.onSuccess(new ArrayList<>()));
+    }
+
+    @Override
+    public void getEmployeesPage(String cursor, int pageSize, EmployeePageCallback callback) {
+        mainHandler.post(() -> {
+            List<Employee> all = roster();
+            int start = cursor == null ? 0 : indexOfUid(all, cursor) + 1;
+            int end = Math.min(all.size(), start + pageSize);
+            String nextCursor = end < all.size() ? all.get(end - 1).getUid() : null;
+            callback.onSuccess(new ArrayList<>(all.subList(start, end)), nextCursor);
+        });
+    }
+
+    @Override
+    public void startEmployeeSync(EmployeeSyncCallback callback) {
+        stopEmployeeSync();
+        // Replays the roster as one batch of child events, then ends the initial sync
+        pendingSync = () -> {
+            Set<String> uids = new HashSet<>();
+            for (Employee employee : roster()) {
+                uids.add(employee.getUid());
+                callback.onEmployeeUpserted(employee);
+            }
+            callback.onInitialSyncComplete(uids);
+        };
+        mainHandler.post(pendingSync);
+    }
+
+    @Override
+    public void stopEmployeeSync() {
+        if (pendingSync != null) {
+            mainHandler.removeCallbacks(pendingSync);
+            pendingSync = null;
+        }
+    }
+
+    @Override
+    public void getEmployeeByUid(String uid, EmployeeCallback callback) {
+        mainHandler.post(() -> {
+            int index = indexOfUid(roster(), uid);
+            if (index >= 0) {
+                callback.onSuccess(roster().get(index));
+            } else {
+                callback.onError("Employee not found");
+            }
+        });
+    }
+
+    @Override
+    public void getEmployeeByEmpId(String empId, EmployeeCallback callback) {
+        mainHandler.post(() -> {
+            for (Employee employee : roster()) {
+                if (employee.getEmpId().equals(empId)) {
+                    callback.onSuccess(employee);
+                    return;
+                }
+            }
+            callback.onError("Employee not found");
+        });
+    }
+
+    private static int indexOfUid(List<Employee> employees, String uid) {
+        // Uids are zero-padded, so the roster is sorted by them
+        int low = 0;
+        int high = employees.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = employees.get(mid).getUid().compareTo(uid);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
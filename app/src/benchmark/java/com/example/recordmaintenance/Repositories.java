@@ -0,0 +1,22 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+
+/**
+ * Creates the repositories used by the activities. The benchmark build type swaps
+ * Firebase for seeded in-memory fakes so that performance runs are repeatable and
+ * need no network or signed-in account. The fakes live only in this source set, so
+ * they never ship in other builds.
+ */
+public final class Repositories {
+
+    private Repositories() {}
+
+    public static EmployeeRepository employees(Context context) {
+        return new FakeEmployeeRepository();
+    }
+
+    public static AuthRepository auth(Context context) {
+        return new FakeAuthRepository();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+
+/**
+ * Creates the repositories used by the activities. This copy, shared by the debug
+ * and release build types, returns the Firebase ones; the benchmark build type has
+ * its own copy that returns seeded in-memory fakes.
+ */
+public final class Repositories {
+
+    private Repositories() {}
+
+    public static EmployeeRepository employees(Context context) {
+        return new EmployeeRepository(context);
+    }
+
+    public static AuthRepository auth(Context context) {
+        return new AuthRepository(context);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.recordmaintenance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic rosters for the JMH benchmarks. Seeded, so every run and every
+ * benchmark sees the same data for a given size.
+ */
+final class BenchmarkData {
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Diya", "Ishaan", "Meera", "Kabir", "Ananya", "Rohan", "Saanvi", "Vikram", "Priya",
+            "Arjun", "Kavya", "Nikhil", "Pooja", "Rahul", "Sneha", "Tanvi", "Varun", "Zara", "Omkar"
+    };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Iyer", "Patel", "Reddy", "Khan", "Nair", "Gupta", "Das", "Menon", "Joshi",
+            "Kulkarni", "Bose", "Chopra", "Pillai", "Rao", "Verma"
+    };
+    private static final String[] DEPARTMENTS = {
+            "Engineering", "Software Development", "HR", "Finance", "Sales", "Operations",
+            "Marketing", "Legal", "Support", "Research"
+    };
+    private static final String[] DESIGNATIONS = {
+            "Developer", "Senior Developer", "Manager", "Analyst", "Executive", "Lead",
+            "Architect", "Intern", "Director", "Consultant"
+    };
+    private static final String[] CITIES = {
+            "Pune", "Bengaluru", "Chennai", "Hyderabad", "Mumbai", "Delhi", "Kochi", "Navi Mumbai, MH"
+    };
+
+    private BenchmarkData() {}
+
+    static List<Employee> employees(int count) {
+        Random random = new Random(count);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(EmployeeSnapshotMapper.fromMap(uid(i), record(i, random)));
+        }
+        return employees;
+    }
+
+    /**
+     * users/{uid} field maps as Firebase hands them to EmployeeSnapshotMapper
+     */
+    static List<Map<String, Object>> records(int count) {
+        Random random = new Random(count);
+        List<Map<String, Object>> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(record(i, random));
+        }
+        return records;
+    }
+
+    static String uid(int i) {
+        return String.format(Locale.US, "uid-%06d", i);
+    }
+
+    private static Map<String, Object> record(int i, Random random) {
+        String first = pick(FIRST_NAMES, random);
+        String last = pick(LAST_NAMES, random);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("uid", uid(i));
+        fields.put("empId", String.format(Locale.US, "EMP%06d", i));
+        fields.put("name", first + " " + last);
+        fields.put("email", first.toLowerCase(Locale.US) + "." + last.toLowerCase(Locale.US) + i + "@example.com");
+        fields.put("role", "employee");
+        fields.put("department", pick(DEPARTMENTS, random));
+        fields.put("designation", pick(DESIGNATIONS, random));
+        // Whole salaries arrive as Long and the rest as Double, like Firebase
+        fields.put("salary", random.nextInt(4) == 0
+                ? 20000 + random.nextDouble() * 180000
+                : (Object) (20000L + random.nextInt(180) * 1000L));
+        fields.put("joinedDate", random.nextBoolean()
+                ? String.format(Locale.US, "%02d/%02d/%d", 1 + random.nextInt(28), 1 + random.nextInt(12), 2010 + random.nextInt(16))
+                : String.format(Locale.US, "%d-%02d-%02d", 2010 + random.nextInt(16), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        fields.put("addressLine1", (1 + random.nextInt(400)) + ", MG Road");
+        fields.put("city", pick(CITIES, random));
+        fields.put("state", "Maharashtra");
+        fields.put("country", "India");
+        fields.put("passwordChanged", random.nextBoolean());
+        fields.put("createdAt", "2024-01-01T00:00:00Z");
+        fields.put("updatedAt", "2024-06-01T00:00:00Z");
+        fields.put("createdBy", "admin-uid");
+        return fields;
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.recordmaintenance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the selection step of EmployeeAdapter's filter run: the search
+ * box text through EmployeeSearchIndex, and the advanced criteria through
+ * EmployeeFilterIndex, as in EmployeeAdapter.filterRows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private EmployeeStore store;
+    private EmployeeSearchIndex searchIndex;
+    private EmployeeSortIndex sortIndex;
+    private EmployeeFilterIndex filterIndex;
+    private EmployeeAdapter.FilterCriteria departmentAndSalary;
+    private EmployeeAdapter.FilterCriteria advancedSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new EmployeeStore();
+        store.replaceAll(BenchmarkData.employees(size));
+        searchIndex = new EmployeeSearchIndex(store);
+        sortIndex = new EmployeeSortIndex(store);
+        filterIndex = new EmployeeFilterIndex(store, sortIndex);
+
+        departmentAndSalary = new EmployeeAdapter.FilterCriteria();
+        departmentAndSalary.departmentFilter = "Engineering";
+        departmentAndSalary.minSalary = 50000;
+        departmentAndSalary.maxSalary = 150000;
+
+        advancedSearch = new EmployeeAdapter.FilterCriteria();
+        advancedSearch.searchQuery = "developer";
+        advancedSearch.dateRange = "last_year";
+
+        // Build the indexes so the benchmarks measure queries, not the first build
+        searchIndex.search("a", true);
+        filterIndex.select(departmentAndSalary);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        searchIndex.release();
+        sortIndex.release();
+        filterIndex.release();
+    }
+
+    @Benchmark
+    public BitSet searchName() {
+        return searchIndex.search("priya", false);
+    }
+
+    @Benchmark
+    public BitSet searchShortPrefix() {
+        // Two characters match most of the roster, the worst case while typing
+        return searchIndex.search("ar", false);
+    }
+
+    @Benchmark
+    public BitSet filterDepartmentAndSalary() {
+        return filterIndex.select(departmentAndSalary);
+    }
+
+    @Benchmark
+    public BitSet advancedSearchWithDateRange() {
+        BitSet candidates = searchIndex.search(advancedSearch.searchQuery, true);
+        BitSet matched = filterIndex.select(advancedSearch);
+        matched.and(candidates);
+        return matched;
+    }
+
+    @Benchmark
+    public BitSet rebuildSearchIndex() {
+        // A store reset invalidates the index; the next search rebuilds it
+        searchIndex.onStoreReset();
+        return searchIndex.search("priya", false);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.recordmaintenance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a loaded roster into the list: mapping Firebase records to
+ * employees as EmployeeRepository.convertToEmployee does, and loading them into
+ * the EmployeeStore columns
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeMappingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private String[] uids;
+    private List<Map<String, Object>> records;
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        uids = new String[size];
+        for (int i = 0; i < size; i++) {
+            uids[i] = BenchmarkData.uid(i);
+        }
+        records = BenchmarkData.records(size);
+        employees = BenchmarkData.employees(size);
+    }
+
+    @Benchmark
+    public void mapRecords(Blackhole blackhole) {
+        for (int i = 0; i < records.size(); i++) {
+            blackhole.consume(EmployeeSnapshotMapper.fromMap(uids[i], records.get(i)));
+        }
+    }
+
+    @Benchmark
+    public EmployeeStore loadStore() {
+        EmployeeStore store = new EmployeeStore();
+        store.replaceAll(employees);
+        return store;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.recordmaintenance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of ordering rows for every SortCriteria, for the whole roster and for a
+ * department-sized subset, and of rebuilding a sort key after the store changes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeSortBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param
+    public EmployeeAdapter.SortCriteria criteria;
+
+    private EmployeeStore store;
+    private EmployeeSortIndex sortIndex;
+    private EmployeeFilterIndex filterIndex;
+    private BitSet allRows;
+    private int allCount;
+    private BitSet departmentRows;
+    private int departmentCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new EmployeeStore();
+        store.replaceAll(BenchmarkData.employees(size));
+        sortIndex = new EmployeeSortIndex(store);
+        filterIndex = new EmployeeFilterIndex(store, sortIndex);
+
+        allRows = filterIndex.select(new EmployeeAdapter.FilterCriteria());
+        allCount = allRows.cardinality();
+        EmployeeAdapter.FilterCriteria department = new EmployeeAdapter.FilterCriteria();
+        department.departmentFilter = "Finance";
+        departmentRows = filterIndex.select(department);
+        departmentCount = departmentRows.cardinality();
+
+        sortIndex.order(criteria, allRows, allCount); // Build the sort key once
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sortIndex.release();
+        filterIndex.release();
+    }
+
+    @Benchmark
+    public int[] orderAll() {
+        return sortIndex.order(criteria, allRows, allCount);
+    }
+
+    @Benchmark
+    public int[] orderDepartment() {
+        return sortIndex.order(criteria, departmentRows, departmentCount);
+    }
+
+    @Benchmark
+    public int[] rebuildAndOrderAll() {
+        sortIndex.onStoreReset();
+        return sortIndex.order(criteria, allRows, allCount);
+    }
+}
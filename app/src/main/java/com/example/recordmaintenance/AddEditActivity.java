@@ -96,7 +96,7 @@ public class AddEditActivity extends AppCompatActivity {
         setupDropdowns();
         setupDatePicker();
 
-        repository = new EmployeeRepository(this);
+        repository = Repositories.employees(this);
         repository.open();
 
         mode = getIntent().getStringExtra("mode");
@@ -24,6 +24,16 @@ public class AuthRepository {
     private final DatabaseReference mDatabase;
     private final Context context;
 
+    /**
+     * For in-memory subclasses: initialises no Firebase instance, so the subclass
+     * must override every method it is used through
+     */
+    protected AuthRepository() {
+        this.context = null;
+        this.mAuth = null;
+        this.mDatabase = null;
+    }
+
     public AuthRepository(Context context) {
         this.context = context;
         this.mAuth = FirebaseAuth.getInstance();
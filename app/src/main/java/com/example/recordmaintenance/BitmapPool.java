@@ -0,0 +1,92 @@
+package com.example.recordmaintenance;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mutable bitmaps kept for reuse as BitmapFactory.Options.inBitmap, bucketed by
+ * allocation size. Decoding into a pooled bitmap skips allocating, and later
+ * collecting, a new pixel buffer for every photo that is drawn.
+ */
+final class BitmapPool {
+
+    // A pooled bitmap may be at most this many times larger than needed
+    private static final int MAX_SIZE_MULTIPLE = 2;
+
+    private final long maxBytes;
+    private final TreeMap<Integer, ArrayDeque<Bitmap>> bitmapsBySize = new TreeMap<>();
+    private long currentBytes;
+    private int hits;
+    private int misses;
+    private int evictions;
+
+    BitmapPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * A pooled bitmap with room for at least byteCount bytes, removed from the pool
+     * @return the bitmap, or null if none fits
+     */
+    synchronized Bitmap get(int byteCount) {
+        Map.Entry<Integer, ArrayDeque<Bitmap>> entry = bitmapsBySize.ceilingEntry(byteCount);
+        if (entry == null || entry.getKey() > (long) byteCount * MAX_SIZE_MULTIPLE) {
+            misses++;
+            return null;
+        }
+        Bitmap bitmap = entry.getValue().pollLast();
+        if (entry.getValue().isEmpty()) {
+            bitmapsBySize.remove(entry.getKey());
+        }
+        currentBytes -= entry.getKey();
+        hits++;
+        return bitmap;
+    }
+
+    /**
+     * Hands a bitmap back for reuse; the caller must not use it afterwards
+     */
+    synchronized void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) return;
+        int size = bitmap.getAllocationByteCount();
+        if (!bitmap.isMutable() || size > maxBytes / 2) {
+            bitmap.recycle();
+            return;
+        }
+        ArrayDeque<Bitmap> bucket = bitmapsBySize.get(size);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            bitmapsBySize.put(size, bucket);
+        }
+        bucket.addLast(bitmap);
+        currentBytes += size;
+        trimTo(maxBytes);
+    }
+
+    synchronized void clear() {
+        trimTo(0);
+    }
+
+    private void trimTo(long bytes) {
+        // Largest first: they free the most memory and are the least likely to fit
+        while (currentBytes > bytes && !bitmapsBySize.isEmpty()) {
+            Map.Entry<Integer, ArrayDeque<Bitmap>> largest = bitmapsBySize.lastEntry();
+            Bitmap bitmap = largest.getValue().pollFirst();
+            if (largest.getValue().isEmpty()) {
+                bitmapsBySize.remove(largest.getKey());
+            }
+            currentBytes -= largest.getKey();
+            evictions++;
+            bitmap.recycle();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BitmapPool{" + currentBytes / 1024 + "/" + maxBytes / 1024 + " KB, hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
@@ -36,8 +36,8 @@ public class ChangePasswordActivity extends AppCompatActivity {
             return;
         }
 
-        authRepository = new AuthRepository(this);
-        employeeRepository = new EmployeeRepository(this);
+        authRepository = Repositories.auth(this);
+        employeeRepository = Repositories.employees(this);
         employeeRepository.open();
 
         initializeViews();
@@ -12,7 +12,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     // Database Information
     private static final String DB_NAME = "EmployeeRecords.db";
-    private static final int DB_VERSION = 4; // Incremented for profile photo addition
+    private static final int DB_VERSION = 5; // Incremented for Firebase cache columns and indexes
 
     // Table Names
     public static final String TABLE_USER_MASTER = "TblUserMaster";
@@ -37,6 +37,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public static final String SALARY = "Salary";
     public static final String PASSWORD_CHANGED = "PasswordChanged"; // Track if initial password changed
     public static final String PROFILE_PHOTO_PATH = "ProfilePhotoPath"; // NEW: Profile photo path
+    public static final String FIREBASE_UID = "FirebaseUid"; // Links a cached row to its Firebase user
 
     // Detail Table Columns (unchanged)
     public static final String EMP_CODE = "EmpCode";
@@ -67,7 +68,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                     JOINED_DATE + " TEXT, " +
                     SALARY + " REAL, " +
                     PASSWORD_CHANGED + " INTEGER DEFAULT 0, " +
-                    PROFILE_PHOTO_PATH + " TEXT" + ")";  // NEW: Profile photo path
+                    PROFILE_PHOTO_PATH + " TEXT, " +  // NEW: Profile photo path
+                    FIREBASE_UID + " TEXT" + ")";
 
     // Create Detail Table SQL (unchanged)
     private static final String CREATE_DETAIL_TABLE =
@@ -81,8 +83,20 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                     "FOREIGN KEY(" + EMP_CODE + ") REFERENCES " +
                     TABLE_MASTER + "(" + MAST_CODE + ") ON DELETE CASCADE" + ")";
 
+    // Indexes used by the local employee cache
+    private static final String[] CREATE_CACHE_INDEXES = {
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_emp_id ON " + TABLE_MASTER + "(" + EMP_ID + ")",
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_firebase_uid ON " + TABLE_MASTER + "(" + FIREBASE_UID + ")",
+            "CREATE INDEX IF NOT EXISTS idx_department ON " + TABLE_MASTER + "(" + DEPARTMENT + ")",
+            "CREATE INDEX IF NOT EXISTS idx_designation ON " + TABLE_MASTER + "(" + DESIGNATION + ")",
+            "CREATE INDEX IF NOT EXISTS idx_salary ON " + TABLE_MASTER + "(" + SALARY + ")",
+            "CREATE INDEX IF NOT EXISTS idx_joined_date ON " + TABLE_MASTER + "(" + JOINED_DATE + ")"
+    };
+
     public DatabaseHelper(Context context) {
         super(context, DB_NAME, null, DB_VERSION);
+        // WAL lets the cache be read while a background sync is writing to it
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
@@ -91,6 +105,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         db.execSQL(CREATE_USER_MASTER_TABLE);
         db.execSQL(CREATE_MASTER_TABLE);
         db.execSQL(CREATE_DETAIL_TABLE);
+        createCacheIndexes(db);
 
         // Insert default admin user
         insertDefaultAdmin(db);
@@ -121,6 +136,18 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             db.execSQL("CREATE UNIQUE INDEX idx_emp_id ON " + TABLE_MASTER + "(" + EMP_ID + ")");
             db.execSQL("CREATE UNIQUE INDEX idx_emp_email ON " + TABLE_MASTER + "(" + EMP_EMAIL + ")");
         }
+
+        if (oldVersion < 5) {
+            // Link rows to Firebase users so the tables can serve as a local cache
+            db.execSQL("ALTER TABLE " + TABLE_MASTER + " ADD COLUMN " + FIREBASE_UID + " TEXT");
+            createCacheIndexes(db);
+        }
+    }
+
+    private void createCacheIndexes(SQLiteDatabase db) {
+        for (String sql : CREATE_CACHE_INDEXES) {
+            db.execSQL(sql);
+        }
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.example.recordmaintenance;
 
+import java.util.Objects;
+
 public class Employee {
     // Firebase UID (primary identifier)
     private String uid;
@@ -18,6 +20,7 @@ public class Employee {
     private double salary;
     private boolean passwordChanged;
     private String profilePhotoPath;
+    private String profilePhotoRef; // Firebase Storage path of the uploaded photo
     private String addressLine1;
     private String addressLine2;
     private String city;
@@ -86,6 +89,8 @@ public class Employee {
     // Profile photo
     public String getProfilePhotoPath() { return profilePhotoPath; }
     public void setProfilePhotoPath(String profilePhotoPath) { this.profilePhotoPath = profilePhotoPath; }
+    public String getProfilePhotoRef() { return profilePhotoRef; }
+    public void setProfilePhotoRef(String profilePhotoRef) { this.profilePhotoRef = profilePhotoRef; }
 
     // Job information
     public String getDesignation() { return designation; }
@@ -125,4 +130,33 @@ public class Employee {
 
     public String getCreatedBy() { return createdBy; }
     public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    /**
+     * Field-by-field comparison used to skip no-op updates, covering every stored
+     * field including the Firebase metadata; only the legacy mastCode is ignored
+     */
+    public boolean hasSameContent(Employee other) {
+        if (other == this) return true;
+        if (other == null) return false;
+        return Double.compare(salary, other.salary) == 0
+                && passwordChanged == other.passwordChanged
+                && Objects.equals(uid, other.uid)
+                && Objects.equals(empId, other.empId)
+                && Objects.equals(empName, other.empName)
+                && Objects.equals(empEmail, other.empEmail)
+                && Objects.equals(role, other.role)
+                && Objects.equals(designation, other.designation)
+                && Objects.equals(department, other.department)
+                && Objects.equals(joinedDate, other.joinedDate)
+                && Objects.equals(profilePhotoPath, other.profilePhotoPath)
+                && Objects.equals(profilePhotoRef, other.profilePhotoRef)
+                && Objects.equals(addressLine1, other.addressLine1)
+                && Objects.equals(addressLine2, other.addressLine2)
+                && Objects.equals(city, other.city)
+                && Objects.equals(state, other.state)
+                && Objects.equals(country, other.country)
+                && Objects.equals(createdAt, other.createdAt)
+                && Objects.equals(updatedAt, other.updatedAt)
+                && Objects.equals(createdBy, other.createdBy);
+    }
 }
\ No newline at end of file
@@ -1,27 +1,72 @@
 package com.example.recordmaintenance;
 
 import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Trace;
+import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Filter;
-import android.widget.Filterable;
 import android.widget.ImageButton;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
+import java.text.NumberFormat;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.EmployeeViewHolder> implements Filterable {
+public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.EmployeeViewHolder> {
+
+    private static final long DEFAULT_SEARCH_DEBOUNCE_MS = 250;
+    // Trace sections read by the macrobenchmarks
+    static final String TRACE_FILTER = "EmployeeAdapter#filter";
+    static final String TRACE_SEARCH_TO_RENDER = "EmployeeAdapter#searchToRender";
+    private static final int ROW_MODEL_CACHE_SIZE = 256; // A few screens of rows either way of a fling
+    private static final int CANCEL_CHECK_MASK = 0x3FF; // Check for a newer generation every 1024 rows
 
     private Context context;
-    private List<Employee> employeeListFull; // Original unfiltered list
-    private List<Employee> employeeListFiltered; // Filtered list for display
+    private final EmployeeStore store; // Original unfiltered data
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeSortIndex sortIndex;
+    private final EmployeeFilterIndex filterIndex;
+    private final EmployeeFacets facets;
+    private final AsyncListDiffer<Long> differ; // Diffs display lists off the main thread
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Display models by row key; a changed row gets a new key, so stale models are simply never hit
+    private final LruCache<Long, EmployeeRowModel> rowModels = new LruCache<>(ROW_MODEL_CACHE_SIZE);
+    private final NumberFormat salaryFormat = EmployeeRowModel.newSalaryFormat();
+    private List<Long> filteredRows; // Latest filtered row keys, ahead of the differ while a diff runs
+    private boolean submitScheduled;
     private OnItemClickListener listener;
     private FilterCriteria currentFilterCriteria;
+    private String currentSearchText = ""; // Search box text of the latest filter request
+    private SortCriteria currentSortCriteria; // Null keeps store order
+    private SortCriteria listedSortCriteria; // Order of filteredRows, until a filter with the current one lands
+    private final BitSet listedRows = new BitSet(); // Rows in filteredRows
+
+    // Filter pipeline: debounced on the main thread, computed on a single worker
+    private final ExecutorService filterExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger filterGeneration = new AtomicInteger();
+    private long searchDebounceMs = DEFAULT_SEARCH_DEBOUNCE_MS;
+    private Runnable pendingFilter;
+    private Future<?> runningFilter;
+    private boolean storeChangedDuringFilter;
+    private OnFilterResultListener filterResultListener;
+    private boolean searchTraceOpen;
+
+    public interface OnFilterResultListener {
+        /** Called once a filter result is on screen */
+        void onFilterResults(int filteredCount, int totalCount);
+    }
 
     public interface OnItemClickListener {
         void onEditClick(Employee employee, int position);
@@ -35,13 +80,28 @@ public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.Employ
         public String designationFilter = "";
         public double minSalary = 0;
         public double maxSalary = Double.MAX_VALUE;
-        public String dateRange = ""; // "last_month", "last_year", etc.
+        public String dateRange = ""; // "last_month", "last_3_months", "last_year"
 
         public boolean isEmpty() {
             return searchQuery.isEmpty() && departmentFilter.isEmpty() &&
                     designationFilter.isEmpty() && minSalary == 0 &&
                     maxSalary == Double.MAX_VALUE && dateRange.isEmpty();
         }
+
+        /**
+         * Joined-date bounds of the date range as inclusive epoch days {from, to},
+         * or null if the range is unset or unknown
+         */
+        public int[] joinedDayBounds() {
+            int months;
+            switch (dateRange) {
+                case "last_month": months = 1; break;
+                case "last_3_months": months = 3; break;
+                case "last_year": months = 12; break;
+                default: return null;
+            }
+            return new int[]{JoinedDates.monthsAgo(months), JoinedDates.today()};
+        }
     }
 
     public enum SortCriteria {
@@ -52,11 +112,181 @@ public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.Employ
         DEPARTMENT_ASC, DEPARTMENT_DESC
     }
 
-    public EmployeeAdapter(Context context, List<Employee> employeeList) {
+    /**
+     * Items are row keys: the store row in the high half and the row's version in the
+     * low half. Employees are materialized from the store only when a row is bound.
+     */
+    private static final DiffUtil.ItemCallback<Long> DIFF_CALLBACK = new DiffUtil.ItemCallback<Long>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Long oldItem, @NonNull Long newItem) {
+            return rowOf(oldItem) == rowOf(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Long oldItem, @NonNull Long newItem) {
+            return oldItem.longValue() == newItem.longValue();
+        }
+    };
+
+    public EmployeeAdapter(Context context, EmployeeStore store) {
         this.context = context;
-        this.employeeListFull = new ArrayList<>(employeeList);
-        this.employeeListFiltered = new ArrayList<>(employeeList);
+        this.store = store;
+        this.differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+        this.filteredRows = new ArrayList<>();
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (store.isLive(row)) {
+                filteredRows.add(keyOf(row));
+                listedRows.set(row);
+            }
+        }
         this.currentFilterCriteria = new FilterCriteria();
+        this.searchIndex = new EmployeeSearchIndex(store);
+        this.sortIndex = new EmployeeSortIndex(store);
+        this.filterIndex = new EmployeeFilterIndex(store, sortIndex);
+        this.facets = new EmployeeFacets(store);
+        store.addChangeListener(storeListener);
+        submitDisplayList();
+    }
+
+    /**
+     * Patches the latest filtered list when the store receives a delta;
+     * the differ then dispatches only the affected rows
+     */
+    private final EmployeeStore.ChangeListener storeListener = new EmployeeStore.ChangeListener() {
+        @Override
+        public void onEmployeeAdded(int row, Employee employee) {
+            noteStoreChange();
+            if (matches(employee, currentSearchText)) {
+                insertInOrder(row);
+                scheduleSubmit();
+            }
+        }
+
+        @Override
+        public void onEmployeeChanged(int row, Employee oldEmployee, Employee newEmployee) {
+            noteStoreChange();
+            int position = indexOfRow(row, oldEmployee);
+            boolean visible = matches(newEmployee, currentSearchText);
+            if (position >= 0 && visible && listedSortCriteria == null) {
+                filteredRows.set(position, keyOf(row));
+            } else if (position >= 0) {
+                removeAt(position);
+                if (visible) insertInOrder(row);
+            } else if (visible) {
+                insertInOrder(row);
+            } else {
+                return;
+            }
+            scheduleSubmit();
+        }
+
+        @Override
+        public void onEmployeeRemoved(int row, Employee employee) {
+            noteStoreChange();
+            int position = indexOfRow(row, employee);
+            if (position >= 0) {
+                removeAt(position);
+                scheduleSubmit();
+            }
+        }
+
+        @Override
+        public void onStoreReset() {
+            rowModels.evictAll();
+            requestFilter(0);
+        }
+    };
+
+    private void noteStoreChange() {
+        if (runningFilter != null) {
+            storeChangedDuringFilter = true;
+        }
+    }
+
+    /**
+     * Hand the latest list to the differ once per main-loop pass, so a burst of
+     * sync deltas costs one diff instead of one per employee
+     */
+    private void scheduleSubmit() {
+        if (submitScheduled) return;
+        submitScheduled = true;
+        mainHandler.post(() -> {
+            if (submitScheduled) submitDisplayList();
+        });
+    }
+
+    /**
+     * Hand a snapshot of the latest list to the differ right away; the differ keeps
+     * the list it is given, so later patches go to a separate copy
+     */
+    private void submitDisplayList() {
+        submitScheduled = false;
+        differ.submitList(new ArrayList<>(filteredRows));
+    }
+
+    /**
+     * Add a newly visible row at its place under the current sort. The list is
+     * ordered by the sort key and then by row, as the sort index orders it, or by row
+     * alone without a sort, so rows can be found again by binary search.
+     */
+    private void insertInOrder(int row) {
+        SortCriteria criteria = listedSortCriteria;
+        int low = 0;
+        int high = filteredRows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int other = rowOf(filteredRows.get(mid));
+            int result = criteria != null ? sortIndex.compare(criteria, other, row) : 0;
+            if (result < 0 || (result == 0 && other < row)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        filteredRows.add(low, keyOf(row));
+        listedRows.set(row);
+    }
+
+    private void removeAt(int position) {
+        listedRows.clear(rowOf(filteredRows.remove(position)));
+    }
+
+    /**
+     * Position of a row in the latest list, found by binary search on the key it was
+     * listed under; the store may already hold its new fields
+     * @param listed the employee as the row was when it was listed
+     * @return the position, or -1 if the row is not listed
+     */
+    private int indexOfRow(int row, Employee listed) {
+        if (!listedRows.get(row)) return -1;
+        SortCriteria criteria = listedSortCriteria;
+        int low = 0;
+        int high = filteredRows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int other = rowOf(filteredRows.get(mid));
+            if (other == row) return mid;
+            int result = criteria != null ? sortIndex.compare(criteria, other, listed) : 0;
+            if (result < 0 || (result == 0 && other < row)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // Listed under a key that changed while a filter ran; the refilter that
+        // follows puts it back in order
+        for (int i = 0; i < filteredRows.size(); i++) {
+            if (rowOf(filteredRows.get(i)) == row) return i;
+        }
+        return -1;
+    }
+
+    private Long keyOf(int row) {
+        return ((long) row << 32) | (store.getVersion(row) & 0xFFFFFFFFL);
+    }
+
+    private static int rowOf(long key) {
+        return (int) (key >>> 32);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -67,224 +297,320 @@ public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.Employ
     @Override
     public EmployeeViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_employee, parent, false);
-        return new EmployeeViewHolder(view);
+        return new EmployeeViewHolder(view, this);
     }
 
     @Override
     public void onBindViewHolder(@NonNull EmployeeViewHolder holder, int position) {
-        Employee employee = employeeListFiltered.get(position);
-
-        holder.tvEmpName.setText(employee.getEmpName());
-        holder.tvEmpId.setText(employee.getEmpId() != null ? employee.getEmpId() : "N/A");
-        holder.tvDesignation.setText(employee.getDesignation() != null ? employee.getDesignation() : "N/A");
-        holder.tvDepartment.setText(employee.getDepartment() != null ? employee.getDepartment() : "N/A");
-        holder.tvSalary.setText("₹" + String.format("%.0f", employee.getSalary()));
-        holder.tvCity.setText(employee.getCity() != null ? employee.getCity() : "N/A");
-        holder.tvJoinedDate.setText(employee.getJoinedDate() != null ? employee.getJoinedDate() : "N/A");
-        holder.tvEmail.setText(employee.getEmpEmail() != null ? employee.getEmpEmail() : "N/A");
-
-        // Set click listeners
-        holder.btnEdit.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onEditClick(employee, position);
-            }
-        });
-
-        holder.btnDelete.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onDeleteClick(employee, position);
-            }
-        });
+        EmployeeRowModel model = rowModel(differ.getCurrentList().get(position));
+        if (model == null) return; // Removed; the pending diff drops this row
+
+        holder.tvEmpName.setText(model.name);
+        holder.tvEmpId.setText(model.empId);
+        holder.tvDesignation.setText(model.designation);
+        holder.tvDepartment.setText(model.department);
+        holder.tvSalary.setText(model.salary);
+        holder.tvCity.setText(model.city);
+        holder.tvJoinedDate.setText(model.joinedDate);
+        holder.tvEmail.setText(model.email);
+    }
 
-        holder.btnView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onViewClick(employee, position);
-            }
-        });
+    /**
+     * Display model of a row key, formatted on first bind and reused until the row changes
+     */
+    private EmployeeRowModel rowModel(Long key) {
+        EmployeeRowModel model = rowModels.get(key);
+        if (model == null) {
+            model = EmployeeRowModel.from(store, rowOf(key), salaryFormat);
+            if (model != null) rowModels.put(key, model);
+        }
+        return model;
+    }
 
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onViewClick(employee, position);
-            }
-        });
+    /**
+     * Employee shown at an adapter position, materialized for a click
+     */
+    private Employee employeeAt(int position) {
+        List<Long> items = differ.getCurrentList();
+        if (position == RecyclerView.NO_POSITION || position >= items.size()) return null;
+        return store.get(rowOf(items.get(position)));
     }
 
     @Override
     public int getItemCount() {
-        return employeeListFiltered.size();
+        return differ.getCurrentList().size();
     }
 
     public void updateList(List<Employee> newList) {
-        this.employeeListFull = new ArrayList<>(newList);
-        this.employeeListFiltered = new ArrayList<>(newList);
-        notifyDataSetChanged();
+        store.replaceAll(newList);
+    }
+
+    /**
+     * Merge employees into the list without rebinding rows that are already shown
+     */
+    public void appendEmployees(List<Employee> employees) {
+        for (Employee employee : employees) {
+            store.upsert(employee);
+        }
+    }
+
+    public void release() {
+        filterGeneration.incrementAndGet();
+        mainHandler.removeCallbacks(pendingFilter);
+        filterExecutor.shutdownNow();
+        store.removeChangeListener(storeListener);
+        searchIndex.release();
+        sortIndex.release();
+        filterIndex.release();
+        facets.release();
     }
 
     // Sorting Methods
+
+    /**
+     * Sort the list by the given criteria; the order is kept across later filter runs
+     */
     public void sortBy(SortCriteria criteria) {
-        switch (criteria) {
-            case NAME_ASC:
-                Collections.sort(employeeListFiltered, (e1, e2) ->
-                        e1.getEmpName().compareToIgnoreCase(e2.getEmpName()));
-                break;
-            case NAME_DESC:
-                Collections.sort(employeeListFiltered, (e1, e2) ->
-                        e2.getEmpName().compareToIgnoreCase(e1.getEmpName()));
-                break;
-            case SALARY_ASC:
-                Collections.sort(employeeListFiltered, Comparator.comparing(Employee::getSalary));
-                break;
-            case SALARY_DESC:
-                Collections.sort(employeeListFiltered, (e1, e2) ->
-                        Double.compare(e2.getSalary(), e1.getSalary()));
-                break;
-            case JOINED_DATE_ASC:
-                Collections.sort(employeeListFiltered, (e1, e2) -> {
-                    if (e1.getJoinedDate() == null) return 1;
-                    if (e2.getJoinedDate() == null) return -1;
-                    return e1.getJoinedDate().compareTo(e2.getJoinedDate());
-                });
-                break;
-            case JOINED_DATE_DESC:
-                Collections.sort(employeeListFiltered, (e1, e2) -> {
-                    if (e1.getJoinedDate() == null) return 1;
-                    if (e2.getJoinedDate() == null) return -1;
-                    return e2.getJoinedDate().compareTo(e1.getJoinedDate());
-                });
-                break;
-            case DESIGNATION_ASC:
-                Collections.sort(employeeListFiltered, (e1, e2) -> {
-                    String d1 = e1.getDesignation() != null ? e1.getDesignation() : "";
-                    String d2 = e2.getDesignation() != null ? e2.getDesignation() : "";
-                    return d1.compareToIgnoreCase(d2);
-                });
-                break;
-            case DESIGNATION_DESC:
-                Collections.sort(employeeListFiltered, (e1, e2) -> {
-                    String d1 = e1.getDesignation() != null ? e1.getDesignation() : "";
-                    String d2 = e2.getDesignation() != null ? e2.getDesignation() : "";
-                    return d2.compareToIgnoreCase(d1);
-                });
-                break;
-            case DEPARTMENT_ASC:
-                Collections.sort(employeeListFiltered, (e1, e2) -> {
-                    String d1 = e1.getDepartment() != null ? e1.getDepartment() : "";
-                    String d2 = e2.getDepartment() != null ? e2.getDepartment() : "";
-                    return d1.compareToIgnoreCase(d2);
-                });
-                break;
-            case DEPARTMENT_DESC:
-                Collections.sort(employeeListFiltered, (e1, e2) -> {
-                    String d1 = e1.getDepartment() != null ? e1.getDepartment() : "";
-                    String d2 = e2.getDepartment() != null ? e2.getDepartment() : "";
-                    return d2.compareToIgnoreCase(d1);
-                });
-                break;
-        }
-        notifyDataSetChanged();
+        currentSortCriteria = criteria;
+        // Re-select the current matches in the new order off the main thread
+        requestFilter(0);
     }
 
     // Advanced filtering with multiple criteria
     public void applyAdvancedFilter(FilterCriteria criteria) {
         this.currentFilterCriteria = criteria;
-        getFilter().filter("");
+        this.currentSearchText = ""; // The dialog's search query replaces the search box text
+        requestFilter(0);
     }
 
-    @Override
-    public Filter getFilter() {
-        return new Filter() {
-            @Override
-            protected FilterResults performFiltering(CharSequence constraint) {
-                List<Employee> filteredList = new ArrayList<>();
-
-                if (currentFilterCriteria.isEmpty() && constraint.toString().isEmpty()) {
-                    filteredList.addAll(employeeListFull);
-                } else {
-                    String filterPattern = constraint.toString().toLowerCase().trim();
-
-                    for (Employee employee : employeeListFull) {
-                        boolean matchesSearch = true;
-                        boolean matchesDepartment = true;
-                        boolean matchesDesignation = true;
-                        boolean matchesSalary = true;
-
-                        // Text search (name, email, ID)
-                        if (!filterPattern.isEmpty()) {
-                            String name = employee.getEmpName() != null ? employee.getEmpName().toLowerCase() : "";
-                            String email = employee.getEmpEmail() != null ? employee.getEmpEmail().toLowerCase() : "";
-                            String empId = employee.getEmpId() != null ? employee.getEmpId().toLowerCase() : "";
-
-                            matchesSearch = name.contains(filterPattern) ||
-                                    email.contains(filterPattern) ||
-                                    empId.contains(filterPattern);
-                        }
-
-                        // Advanced search from search query
-                        if (!currentFilterCriteria.searchQuery.isEmpty()) {
-                            String query = currentFilterCriteria.searchQuery.toLowerCase();
-                            String name = employee.getEmpName() != null ? employee.getEmpName().toLowerCase() : "";
-                            String email = employee.getEmpEmail() != null ? employee.getEmpEmail().toLowerCase() : "";
-                            String empId = employee.getEmpId() != null ? employee.getEmpId().toLowerCase() : "";
-                            String designation = employee.getDesignation() != null ? employee.getDesignation().toLowerCase() : "";
-                            String department = employee.getDepartment() != null ? employee.getDepartment().toLowerCase() : "";
-
-                            matchesSearch = name.contains(query) || email.contains(query) ||
-                                    empId.contains(query) || designation.contains(query) ||
-                                    department.contains(query);
-                        }
-
-                        // Department filter
-                        if (!currentFilterCriteria.departmentFilter.isEmpty()) {
-                            String empDept = employee.getDepartment() != null ? employee.getDepartment() : "";
-                            matchesDepartment = empDept.equals(currentFilterCriteria.departmentFilter);
-                        }
-
-                        // Designation filter
-                        if (!currentFilterCriteria.designationFilter.isEmpty()) {
-                            String empDesig = employee.getDesignation() != null ? employee.getDesignation() : "";
-                            matchesDesignation = empDesig.equals(currentFilterCriteria.designationFilter);
-                        }
-
-                        // Salary range filter
-                        double salary = employee.getSalary();
-                        matchesSalary = salary >= currentFilterCriteria.minSalary &&
-                                salary <= currentFilterCriteria.maxSalary;
-
-                        // Combine all filters
-                        if (matchesSearch && matchesDepartment && matchesDesignation && matchesSalary) {
-                            filteredList.add(employee);
-                        }
-                    }
+    /**
+     * Filter by search box text after the debounce delay; each keystroke
+     * supersedes the previous one
+     */
+    public void search(String text) {
+        currentSearchText = text != null ? text : "";
+        if (!searchTraceOpen && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            // Spans the debounce, the filter run and the diff, up to the list on screen
+            Trace.beginAsyncSection(TRACE_SEARCH_TO_RENDER, 0);
+            searchTraceOpen = true;
+        }
+        requestFilter(searchDebounceMs);
+    }
+
+    public void setSearchDebounce(long delayMs) {
+        this.searchDebounceMs = delayMs;
+    }
+
+    public void setOnFilterResultListener(OnFilterResultListener filterResultListener) {
+        this.filterResultListener = filterResultListener;
+    }
+
+    /**
+     * Schedule a filter run for the current text, criteria and sort. Starting a new
+     * generation drops the pending run and makes any running one give up.
+     */
+    private void requestFilter(long delayMs) {
+        final int generation = filterGeneration.incrementAndGet();
+        final String text = currentSearchText;
+        final FilterCriteria criteria = currentFilterCriteria;
+        final SortCriteria sortCriteria = currentSortCriteria;
+
+        mainHandler.removeCallbacks(pendingFilter);
+        if (runningFilter != null) {
+            runningFilter.cancel(false); // Queued runs never start; a running one checks its generation
+        }
+        pendingFilter = () -> {
+            storeChangedDuringFilter = false;
+            runningFilter = filterExecutor.submit(() -> {
+                List<Long> rows;
+                Trace.beginSection(TRACE_FILTER);
+                try {
+                    rows = filterRows(generation, text, criteria, sortCriteria);
+                } finally {
+                    Trace.endSection();
+                }
+                if (rows != null) {
+                    mainHandler.post(() -> publishFilterResults(generation, rows, sortCriteria));
                 }
+            });
+        };
+        if (delayMs > 0) {
+            mainHandler.postDelayed(pendingFilter, delayMs);
+        } else {
+            pendingFilter.run();
+        }
+    }
+
+    private void publishFilterResults(int generation, List<Long> rows, SortCriteria sortCriteria) {
+        if (generation != filterGeneration.get()) return; // Superseded while in flight
+
+        runningFilter = null;
+        filteredRows = rows;
+        listedSortCriteria = sortCriteria;
+        listedRows.clear();
+        for (Long key : rows) {
+            listedRows.set(rowOf(key));
+        }
+        submitScheduled = false;
+        // Report counts once the list they describe is on screen
+        differ.submitList(new ArrayList<>(rows), () -> {
+            if (searchTraceOpen) {
+                Trace.endAsyncSection(TRACE_SEARCH_TO_RENDER, 0);
+                searchTraceOpen = false;
+            }
+            if (filterResultListener != null) {
+                filterResultListener.onFilterResults(getFilteredCount(), getTotalCount());
+            }
+        });
+        if (storeChangedDuringFilter) {
+            // Deltas patched into the previous list are not in this result
+            requestFilter(searchDebounceMs);
+        }
+    }
 
-                FilterResults results = new FilterResults();
-                results.values = filteredList;
-                results.count = filteredList.size();
-                return results;
+    /**
+     * Computes the filtered, sorted row keys on the filter thread
+     * @return the keys, or null if a newer generation superseded this run
+     */
+    private List<Long> filterRows(int generation, String text, FilterCriteria criteria,
+                                  SortCriteria sortCriteria) {
+        String filterPattern = text.trim();
+        BitSet matched = new BitSet();
+        int matchCount = 0;
+
+        if (criteria.isEmpty() && filterPattern.isEmpty()) {
+            int rowCount = store.getRowCount();
+            for (int row = 0; row < rowCount; row++) {
+                if (store.isLive(row)) {
+                    matched.set(row);
+                    matchCount++;
+                }
+            }
+        } else {
+            // Text search narrows the candidates through the index; the advanced
+            // search query takes precedence over the search box text
+            BitSet candidates = null;
+            if (!criteria.searchQuery.isEmpty()) {
+                candidates = searchIndex.search(criteria.searchQuery, true);
+            } else if (!filterPattern.isEmpty()) {
+                candidates = searchIndex.search(filterPattern, false);
             }
+            if (generation != filterGeneration.get()) return null;
 
-            @Override
-            protected void publishResults(CharSequence constraint, FilterResults results) {
-                employeeListFiltered.clear();
-                employeeListFiltered.addAll((List<Employee>) results.values);
-                notifyDataSetChanged();
+            // Department, designation, salary and joined date come from the bitmap indexes
+            matched = filterIndex.select(criteria);
+            if (candidates != null) {
+                matched.and(candidates);
             }
-        };
+            matchCount = matched.cardinality();
+        }
+        if (generation != filterGeneration.get()) return null;
+
+        List<Long> filteredList = new ArrayList<>(matchCount);
+        if (sortCriteria != null) {
+            int[] ordered = sortIndex.order(sortCriteria, matched, matchCount);
+            for (int i = 0; i < ordered.length; i++) {
+                if ((i & CANCEL_CHECK_MASK) == 0 && generation != filterGeneration.get()) return null;
+                filteredList.add(keyOf(ordered[i]));
+            }
+        } else {
+            int i = 0;
+            for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+                if ((i++ & CANCEL_CHECK_MASK) == 0 && generation != filterGeneration.get()) return null;
+                filteredList.add(keyOf(row));
+            }
+        }
+        return filteredList;
+    }
+
+    /**
+     * Whether an employee passes the search text and the current filter criteria
+     */
+    private boolean matches(Employee employee, String searchText) {
+        boolean matchesSearch = true;
+        // Normalized as the search index does, so a delta agrees with a full search
+        String filterPattern = EmployeeSearchIndex.normalize(searchText).trim();
+
+        // Text search (name, email, ID)
+        if (!filterPattern.isEmpty()) {
+            matchesSearch = contains(employee.getEmpName(), filterPattern) ||
+                    contains(employee.getEmpEmail(), filterPattern) ||
+                    contains(employee.getEmpId(), filterPattern);
+        }
+
+        // Advanced search from search query
+        String query = EmployeeSearchIndex.normalize(currentFilterCriteria.searchQuery).trim();
+        if (!query.isEmpty()) {
+            matchesSearch = contains(employee.getEmpName(), query) || contains(employee.getEmpEmail(), query) ||
+                    contains(employee.getEmpId(), query) || contains(employee.getDesignation(), query) ||
+                    contains(employee.getDepartment(), query);
+        }
+
+        return matchesSearch && matchesCriteria(employee);
+    }
+
+    private static boolean contains(String field, String normalizedQuery) {
+        return field != null && EmployeeSearchIndex.normalize(field).contains(normalizedQuery);
+    }
+
+    /**
+     * Whether an employee passes the department, designation and salary criteria
+     */
+    private boolean matchesCriteria(Employee employee) {
+        boolean matchesDepartment = true;
+        boolean matchesDesignation = true;
+        boolean matchesSalary = true;
+
+        // Department filter
+        if (!currentFilterCriteria.departmentFilter.isEmpty()) {
+            String empDept = employee.getDepartment() != null ? employee.getDepartment() : "";
+            matchesDepartment = empDept.equals(currentFilterCriteria.departmentFilter);
+        }
+
+        // Designation filter
+        if (!currentFilterCriteria.designationFilter.isEmpty()) {
+            String empDesig = employee.getDesignation() != null ? employee.getDesignation() : "";
+            matchesDesignation = empDesig.equals(currentFilterCriteria.designationFilter);
+        }
+
+        // Salary range filter
+        double salary = employee.getSalary();
+        matchesSalary = salary >= currentFilterCriteria.minSalary &&
+                salary <= currentFilterCriteria.maxSalary;
+
+        // Joined date range filter
+        boolean matchesDateRange = true;
+        int[] joinedDayBounds = currentFilterCriteria.joinedDayBounds();
+        if (joinedDayBounds != null) {
+            int joinedDay = JoinedDates.toEpochDay(employee.getJoinedDate());
+            matchesDateRange = joinedDay != JoinedDates.UNKNOWN &&
+                    joinedDay >= joinedDayBounds[0] && joinedDay <= joinedDayBounds[1];
+        }
+
+        // Combine all filters
+        return matchesDepartment && matchesDesignation && matchesSalary && matchesDateRange;
     }
 
     public int getFilteredCount() {
-        return employeeListFiltered.size();
+        return filteredRows.size();
     }
 
     public int getTotalCount() {
-        return employeeListFull.size();
+        return store.size();
+    }
+
+    /**
+     * Department, designation and salary facets over all employees, regardless of the current filter
+     */
+    public EmployeeFacets getFacets() {
+        return facets;
     }
 
     public static class EmployeeViewHolder extends RecyclerView.ViewHolder {
         TextView tvEmpName, tvEmpId, tvDesignation, tvDepartment, tvSalary, tvCity, tvJoinedDate, tvEmail;
         ImageButton btnEdit, btnDelete, btnView;
 
-        public EmployeeViewHolder(@NonNull View itemView) {
+        public EmployeeViewHolder(@NonNull View itemView, EmployeeAdapter adapter) {
             super(itemView);
             tvEmpName = itemView.findViewById(R.id.tvEmpName);
             tvEmpId = itemView.findViewById(R.id.tvEmpId);
@@ -297,10 +623,42 @@ public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.Employ
             btnEdit = itemView.findViewById(R.id.btnEdit);
             btnDelete = itemView.findViewById(R.id.btnDelete);
             btnView = itemView.findViewById(R.id.btnView);
+
+            // Bound once per holder; the clicked row is resolved from the position at click time
+            btnEdit.setOnClickListener(v -> {
+                Employee employee = adapter.employeeAt(getBindingAdapterPosition());
+                if (employee != null && adapter.listener != null) {
+                    adapter.listener.onEditClick(employee, getBindingAdapterPosition());
+                }
+            });
+
+            btnDelete.setOnClickListener(v -> {
+                Employee employee = adapter.employeeAt(getBindingAdapterPosition());
+                if (employee != null && adapter.listener != null) {
+                    adapter.listener.onDeleteClick(employee, getBindingAdapterPosition());
+                }
+            });
+
+            View.OnClickListener viewClick = v -> {
+                Employee employee = adapter.employeeAt(getBindingAdapterPosition());
+                if (employee != null && adapter.listener != null) {
+                    adapter.listener.onViewClick(employee, getBindingAdapterPosition());
+                }
+            };
+            btnView.setOnClickListener(viewClick);
+            itemView.setOnClickListener(viewClick);
         }
     }
 
+    /**
+     * Materializes the filtered employees, e.g. for export
+     */
     public List<Employee> getCurrentItems() {
-        return new ArrayList<>(employeeListFiltered);
+        List<Employee> items = new ArrayList<>(filteredRows.size());
+        for (Long key : filteredRows) {
+            Employee employee = store.get(rowOf(key));
+            if (employee != null) items.add(employee);
+        }
+        return items;
     }
 }
@@ -0,0 +1,149 @@
+package com.example.recordmaintenance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Facet counts over every employee in the EmployeeStore, for the filter dialog:
+ * the number of employees per department and designation, and the salary bounds.
+ * Counts are adjusted for each delta, so reading them does not scan the roster.
+ * After a store reset they are rebuilt on the next read.
+ */
+public class EmployeeFacets implements EmployeeStore.ChangeListener {
+
+    private final EmployeeStore store;
+    private final TreeMap<String, int[]> departmentCounts = new TreeMap<>();
+    private final TreeMap<String, int[]> designationCounts = new TreeMap<>();
+    private final TreeMap<Double, int[]> salaryCounts = new TreeMap<>();
+    private boolean built;
+
+    /**
+     * One facet value and the number of employees that have it
+     */
+    public static final class Facet {
+        public final String value;
+        public final int count;
+
+        Facet(String value, int count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return value + " (" + count + ")";
+        }
+    }
+
+    public EmployeeFacets(EmployeeStore store) {
+        this.store = store;
+        store.addChangeListener(this);
+    }
+
+    public void release() {
+        store.removeChangeListener(this);
+    }
+
+    /**
+     * Departments in alphabetical order with their employee counts
+     */
+    public synchronized List<Facet> getDepartmentFacets() {
+        ensureBuilt();
+        return facets(departmentCounts);
+    }
+
+    /**
+     * Designations in alphabetical order with their employee counts
+     */
+    public synchronized List<Facet> getDesignationFacets() {
+        ensureBuilt();
+        return facets(designationCounts);
+    }
+
+    /**
+     * @return {min, max} salary over all employees, or null if there are none
+     */
+    public synchronized double[] getSalaryBounds() {
+        ensureBuilt();
+        if (salaryCounts.isEmpty()) return null;
+        return new double[]{salaryCounts.firstKey(), salaryCounts.lastKey()};
+    }
+
+    private static List<Facet> facets(TreeMap<String, int[]> counts) {
+        List<Facet> facets = new ArrayList<>(counts.size());
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            facets.add(new Facet(entry.getKey(), entry.getValue()[0]));
+        }
+        return facets;
+    }
+
+    private void ensureBuilt() {
+        if (built) return;
+
+        clear();
+        int rowCount = store.getRowCount();
+        for (int row = 0; row < rowCount; row++) {
+            if (store.isLive(row)) {
+                add(store.getDepartment(row), store.getDesignation(row), store.getSalary(row), 1);
+            }
+        }
+        built = true;
+    }
+
+    private void add(String department, String designation, double salary, int delta) {
+        // Blank values are not offered as filter options
+        if (department != null && !department.trim().isEmpty()) {
+            adjust(departmentCounts, department, delta);
+        }
+        if (designation != null && !designation.trim().isEmpty()) {
+            adjust(designationCounts, designation, delta);
+        }
+        adjust(salaryCounts, salary, delta);
+    }
+
+    private static <K> void adjust(TreeMap<K, int[]> counts, K key, int delta) {
+        int[] count = counts.get(key);
+        if (count == null) {
+            count = new int[1];
+            counts.put(key, count);
+        }
+        count[0] += delta;
+        if (count[0] <= 0) {
+            counts.remove(key);
+        }
+    }
+
+    private void clear() {
+        departmentCounts.clear();
+        designationCounts.clear();
+        salaryCounts.clear();
+    }
+
+    // Keep the counts in step with the store
+
+    @Override
+    public synchronized void onEmployeeAdded(int row, Employee employee) {
+        if (built) add(employee.getDepartment(), employee.getDesignation(), employee.getSalary(), 1);
+    }
+
+    @Override
+    public synchronized void onEmployeeChanged(int row, Employee oldEmployee, Employee newEmployee) {
+        if (!built) return;
+        add(oldEmployee.getDepartment(), oldEmployee.getDesignation(), oldEmployee.getSalary(), -1);
+        add(newEmployee.getDepartment(), newEmployee.getDesignation(), newEmployee.getSalary(), 1);
+    }
+
+    @Override
+    public synchronized void onEmployeeRemoved(int row, Employee employee) {
+        if (built) add(employee.getDepartment(), employee.getDesignation(), employee.getSalary(), -1);
+    }
+
+    @Override
+    public synchronized void onStoreReset() {
+        // Rebuilt on the next read rather than on the caller's thread
+        built = false;
+        clear();
+    }
+}
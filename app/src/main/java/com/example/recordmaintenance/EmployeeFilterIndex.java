@@ -0,0 +1,141 @@
+package com.example.recordmaintenance;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Bitmap indexes over the EmployeeStore rows for the advanced filter criteria.
+ * Keeps one BitSet of rows per department and designation dictionary code, so a
+ * filter apply is a few bitwise ANDs; salary and joined-date ranges come from the
+ * binary-searched permutations of EmployeeSortIndex.
+ *
+ * Like EmployeeSearchIndex, the bitmaps are built lazily on the first selection
+ * after a store reset and are updated incrementally for single-employee deltas.
+ */
+public class EmployeeFilterIndex implements EmployeeStore.ChangeListener {
+
+    private final EmployeeStore store;
+    private final EmployeeSortIndex sortIndex;
+    private final BitSet liveRows = new BitSet();
+    private final List<BitSet> rowsByDepartment = new ArrayList<>();
+    private final List<BitSet> rowsByDesignation = new ArrayList<>();
+    private boolean built;
+
+    public EmployeeFilterIndex(EmployeeStore store, EmployeeSortIndex sortIndex) {
+        this.store = store;
+        this.sortIndex = sortIndex;
+        store.addChangeListener(this);
+    }
+
+    public void release() {
+        store.removeChangeListener(this);
+    }
+
+    /**
+     * Rows passing the department, designation, salary and joined-date criteria
+     * @return a new BitSet the caller may modify
+     */
+    public synchronized BitSet select(EmployeeAdapter.FilterCriteria criteria) {
+        ensureBuilt();
+
+        BitSet result = (BitSet) liveRows.clone();
+        if (!criteria.departmentFilter.isEmpty()) {
+            result.and(bits(rowsByDepartment, store.departmentCodeOf(criteria.departmentFilter)));
+        }
+        if (!criteria.designationFilter.isEmpty() && !result.isEmpty()) {
+            result.and(bits(rowsByDesignation, store.designationCodeOf(criteria.designationFilter)));
+        }
+        // The default bounds pass every salary; skip building the salary permutation for them
+        boolean salaryBounded = criteria.minSalary > 0 || criteria.maxSalary != Double.MAX_VALUE;
+        if (salaryBounded && !result.isEmpty()) {
+            BitSet salaryRows = sortIndex.salaryRange(criteria.minSalary, criteria.maxSalary);
+            if (salaryRows != null) {
+                result.and(salaryRows);
+            }
+        }
+        int[] joinedDayBounds = criteria.joinedDayBounds();
+        if (joinedDayBounds != null && !result.isEmpty()) {
+            result.and(sortIndex.joinedDayRange(joinedDayBounds[0], joinedDayBounds[1]));
+        }
+        return result;
+    }
+
+    private static BitSet bits(List<BitSet> rowsByCode, int code) {
+        BitSet rows = code >= 0 && code < rowsByCode.size() ? rowsByCode.get(code) : null;
+        return rows != null ? rows : new BitSet();
+    }
+
+    private void ensureBuilt() {
+        if (built) return;
+
+        clear();
+        int rowCount = store.getRowCount();
+        for (int row = 0; row < rowCount; row++) {
+            if (store.isLive(row)) {
+                addRow(row, store.getDepartmentCode(row), store.getDesignationCode(row));
+            }
+        }
+        built = true;
+    }
+
+    private void addRow(int row, int departmentCode, int designationCode) {
+        liveRows.set(row);
+        rowsFor(rowsByDepartment, departmentCode).set(row);
+        rowsFor(rowsByDesignation, designationCode).set(row);
+    }
+
+    private void removeRow(int row, Employee employee) {
+        liveRows.clear(row);
+        rowsFor(rowsByDepartment, store.departmentCodeOf(employee.getDepartment())).clear(row);
+        rowsFor(rowsByDesignation, store.designationCodeOf(employee.getDesignation())).clear(row);
+    }
+
+    /**
+     * Bitmap of one dictionary code; employees without a value share a scratch bitmap
+     */
+    private static BitSet rowsFor(List<BitSet> rowsByCode, int code) {
+        if (code < 0) return new BitSet();
+        while (rowsByCode.size() <= code) {
+            rowsByCode.add(null);
+        }
+        BitSet rows = rowsByCode.get(code);
+        if (rows == null) {
+            rows = new BitSet();
+            rowsByCode.set(code, rows);
+        }
+        return rows;
+    }
+
+    private void clear() {
+        liveRows.clear();
+        rowsByDepartment.clear();
+        rowsByDesignation.clear();
+    }
+
+    // Keep the bitmaps in step with the store
+
+    @Override
+    public synchronized void onEmployeeAdded(int row, Employee employee) {
+        if (built) addRow(row, store.getDepartmentCode(row), store.getDesignationCode(row));
+    }
+
+    @Override
+    public synchronized void onEmployeeChanged(int row, Employee oldEmployee, Employee newEmployee) {
+        if (!built) return;
+        removeRow(row, oldEmployee);
+        addRow(row, store.getDepartmentCode(row), store.getDesignationCode(row));
+    }
+
+    @Override
+    public synchronized void onEmployeeRemoved(int row, Employee employee) {
+        if (built) removeRow(row, employee);
+    }
+
+    @Override
+    public synchronized void onStoreReset() {
+        // Rebuilt on the next selection rather than on the caller's thread
+        built = false;
+        clear();
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.recordmaintenance;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * SQLite copy of the Firebase employee list, stored in the legacy
+ * TblEmployeeMaster/TblEmployeeDetail tables.
+ * Lets the list render instantly on cold start while Firebase is still connecting.
+ * All database work runs on a single background thread; writes are coalesced
+ * so a burst of sync deltas is committed in one transaction.
+ */
+public class EmployeeLocalCache {
+
+    private static final String TAG = "EmployeeLocalCache";
+
+    private final DatabaseHelper dbHelper;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Pending writes, flushed together by the executor
+    private final Map<String, Employee> pendingUpserts = new LinkedHashMap<>();
+    private final Set<String> pendingDeletes = new HashSet<>();
+    private boolean flushScheduled;
+    private boolean closed;
+
+    public EmployeeLocalCache(Context context) {
+        this.dbHelper = new DatabaseHelper(context.getApplicationContext());
+    }
+
+    /**
+     * Read all cached employees; the callback is invoked on the main thread
+     */
+    public void loadAll(EmployeeRepository.EmployeeListCallback callback) {
+        submit(() -> {
+            try {
+                List<Employee> employees = readAll();
+                mainHandler.post(() -> callback.onSuccess(employees));
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading employee cache", e);
+                mainHandler.post(() -> callback.onError("Failed to read local cache"));
+            }
+        });
+    }
+
+    public synchronized void upsert(Employee employee) {
+        if (employee == null || employee.getUid() == null) return;
+        pendingDeletes.remove(employee.getUid());
+        pendingUpserts.put(employee.getUid(), employee);
+        scheduleFlush();
+    }
+
+    public synchronized void delete(String uid) {
+        if (uid == null) return;
+        pendingUpserts.remove(uid);
+        pendingDeletes.add(uid);
+        scheduleFlush();
+    }
+
+    /**
+     * Drop every cached employee that is not in the given set of UIDs
+     */
+    public void retainOnly(Set<String> uids) {
+        Set<String> keep = new HashSet<>(uids);
+        submit(() -> {
+            flush();
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            List<String> stale = new ArrayList<>();
+            try (Cursor c = db.query(DatabaseHelper.TABLE_MASTER, new String[]{DatabaseHelper.FIREBASE_UID},
+                    DatabaseHelper.FIREBASE_UID + " IS NOT NULL", null, null, null, null)) {
+                while (c.moveToNext()) {
+                    String uid = c.getString(0);
+                    if (!keep.contains(uid)) {
+                        stale.add(uid);
+                    }
+                }
+            }
+            if (stale.isEmpty()) return;
+
+            db.beginTransaction();
+            try {
+                for (String uid : stale) {
+                    deleteRow(db, uid);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            Log.d(TAG, "Removed " + stale.size() + " stale cached employees");
+        });
+    }
+
+    /**
+     * Flush pending writes and release the database
+     */
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        executor.execute(() -> {
+            flush();
+            dbHelper.close();
+        });
+        executor.shutdown();
+    }
+
+    private synchronized void submit(Runnable task) {
+        if (closed) return;
+        executor.execute(task);
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled || closed) return;
+        flushScheduled = true;
+        executor.execute(this::flush);
+    }
+
+    private void flush() {
+        List<Employee> upserts;
+        List<String> deletes;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pendingUpserts.isEmpty() && pendingDeletes.isEmpty()) return;
+            upserts = new ArrayList<>(pendingUpserts.values());
+            deletes = new ArrayList<>(pendingDeletes);
+            pendingUpserts.clear();
+            pendingDeletes.clear();
+        }
+
+        try {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (String uid : deletes) {
+                    deleteRow(db, uid);
+                }
+                for (Employee employee : upserts) {
+                    writeRow(db, employee);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error writing employee cache", e);
+        }
+    }
+
+    private List<Employee> readAll() {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        String sql = "SELECT m.*, d." + DatabaseHelper.ADDRESS_LINE1 + ", d." + DatabaseHelper.ADDRESS_LINE2 +
+                ", d." + DatabaseHelper.CITY + ", d." + DatabaseHelper.STATE + ", d." + DatabaseHelper.COUNTRY +
+                " FROM " + DatabaseHelper.TABLE_MASTER + " m LEFT JOIN " + DatabaseHelper.TABLE_DETAIL + " d" +
+                " ON d." + DatabaseHelper.EMP_CODE + " = m." + DatabaseHelper.MAST_CODE +
+                " WHERE m." + DatabaseHelper.FIREBASE_UID + " IS NOT NULL" +
+                " ORDER BY m." + DatabaseHelper.MAST_CODE;
+
+        List<Employee> employees = new ArrayList<>();
+        try (Cursor c = db.rawQuery(sql, null)) {
+            int iUid = c.getColumnIndexOrThrow(DatabaseHelper.FIREBASE_UID);
+            int iEmpId = c.getColumnIndexOrThrow(DatabaseHelper.EMP_ID);
+            int iName = c.getColumnIndexOrThrow(DatabaseHelper.EMP_NAME);
+            int iEmail = c.getColumnIndexOrThrow(DatabaseHelper.EMP_EMAIL);
+            int iDesignation = c.getColumnIndexOrThrow(DatabaseHelper.DESIGNATION);
+            int iDepartment = c.getColumnIndexOrThrow(DatabaseHelper.DEPARTMENT);
+            int iJoined = c.getColumnIndexOrThrow(DatabaseHelper.JOINED_DATE);
+            int iSalary = c.getColumnIndexOrThrow(DatabaseHelper.SALARY);
+            int iPwd = c.getColumnIndexOrThrow(DatabaseHelper.PASSWORD_CHANGED);
+            int iPhoto = c.getColumnIndexOrThrow(DatabaseHelper.PROFILE_PHOTO_PATH);
+            int iAddr1 = c.getColumnIndexOrThrow(DatabaseHelper.ADDRESS_LINE1);
+            int iAddr2 = c.getColumnIndexOrThrow(DatabaseHelper.ADDRESS_LINE2);
+            int iCity = c.getColumnIndexOrThrow(DatabaseHelper.CITY);
+            int iState = c.getColumnIndexOrThrow(DatabaseHelper.STATE);
+            int iCountry = c.getColumnIndexOrThrow(DatabaseHelper.COUNTRY);
+
+            while (c.moveToNext()) {
+                String uid = c.getString(iUid);
+                Employee employee = new Employee();
+                employee.setUid(uid);
+                employee.setRole("employee");
+                employee.setEmpId(fromPlaceholder(c.getString(iEmpId), uid));
+                employee.setEmpName(c.getString(iName));
+                employee.setEmpEmail(fromPlaceholder(c.getString(iEmail), uid));
+                employee.setDesignation(c.getString(iDesignation));
+                employee.setDepartment(c.getString(iDepartment));
+                employee.setJoinedDate(c.getString(iJoined));
+                employee.setSalary(c.getDouble(iSalary));
+                employee.setPasswordChanged(c.getInt(iPwd) != 0);
+                employee.setProfilePhotoPath(c.getString(iPhoto));
+                employee.setAddressLine1(c.getString(iAddr1));
+                employee.setAddressLine2(c.getString(iAddr2));
+                employee.setCity(c.getString(iCity));
+                employee.setState(c.getString(iState));
+                employee.setCountry(c.getString(iCountry));
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+
+    private void writeRow(SQLiteDatabase db, Employee employee) {
+        String uid = employee.getUid();
+        // EmpID and EmpEmail are UNIQUE NOT NULL in the legacy schema, so missing values
+        // are stored as the UID and mapped back to null when read
+        String empId = employee.getEmpId() != null ? employee.getEmpId() : uid;
+        String email = employee.getEmpEmail() != null ? employee.getEmpEmail() : uid;
+
+        // Firebase owns these identifiers now; drop legacy or stale rows that still claim them
+        db.delete(DatabaseHelper.TABLE_MASTER,
+                "(" + DatabaseHelper.EMP_ID + " = ? OR " + DatabaseHelper.EMP_EMAIL + " = ?) AND (" +
+                        DatabaseHelper.FIREBASE_UID + " IS NULL OR " + DatabaseHelper.FIREBASE_UID + " != ?)",
+                new String[]{empId, email, uid});
+
+        ContentValues master = new ContentValues();
+        master.put(DatabaseHelper.FIREBASE_UID, uid);
+        master.put(DatabaseHelper.EMP_ID, empId);
+        master.put(DatabaseHelper.EMP_NAME, employee.getEmpName() != null ? employee.getEmpName() : "");
+        master.put(DatabaseHelper.EMP_EMAIL, email);
+        master.put(DatabaseHelper.EMP_PASSWORD, ""); // Passwords live in Firebase Auth
+        master.put(DatabaseHelper.DESIGNATION, employee.getDesignation());
+        master.put(DatabaseHelper.DEPARTMENT, employee.getDepartment());
+        master.put(DatabaseHelper.JOINED_DATE, employee.getJoinedDate());
+        master.put(DatabaseHelper.SALARY, employee.getSalary());
+        master.put(DatabaseHelper.PASSWORD_CHANGED, employee.isPasswordChanged() ? 1 : 0);
+        master.put(DatabaseHelper.PROFILE_PHOTO_PATH, employee.getProfilePhotoPath());
+
+        long mastCode = findMastCode(db, uid);
+        if (mastCode >= 0) {
+            db.update(DatabaseHelper.TABLE_MASTER, master,
+                    DatabaseHelper.MAST_CODE + " = ?", new String[]{String.valueOf(mastCode)});
+        } else {
+            mastCode = db.insertOrThrow(DatabaseHelper.TABLE_MASTER, null, master);
+        }
+
+        ContentValues detail = new ContentValues();
+        detail.put(DatabaseHelper.EMP_CODE, mastCode);
+        detail.put(DatabaseHelper.ADDRESS_LINE1, employee.getAddressLine1());
+        detail.put(DatabaseHelper.ADDRESS_LINE2, employee.getAddressLine2());
+        detail.put(DatabaseHelper.CITY, employee.getCity());
+        detail.put(DatabaseHelper.STATE, employee.getState());
+        detail.put(DatabaseHelper.COUNTRY, employee.getCountry());
+        db.insertWithOnConflict(DatabaseHelper.TABLE_DETAIL, null, detail, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private void deleteRow(SQLiteDatabase db, String uid) {
+        // Detail rows are removed by ON DELETE CASCADE
+        db.delete(DatabaseHelper.TABLE_MASTER, DatabaseHelper.FIREBASE_UID + " = ?", new String[]{uid});
+    }
+
+    private long findMastCode(SQLiteDatabase db, String uid) {
+        try (Cursor c = db.query(DatabaseHelper.TABLE_MASTER, new String[]{DatabaseHelper.MAST_CODE},
+                DatabaseHelper.FIREBASE_UID + " = ?", new String[]{uid}, null, null, null)) {
+            return c.moveToFirst() ? c.getLong(0) : -1;
+        }
+    }
+
+    private static String fromPlaceholder(String value, String uid) {
+        return value == null || value.equals(uid) ? null : value;
+    }
+}
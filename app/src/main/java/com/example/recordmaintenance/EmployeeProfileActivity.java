@@ -5,11 +5,6 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Rect;
-import android.graphics.Typeface;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
@@ -23,11 +18,13 @@ import android.print.PrintManager;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
@@ -38,13 +35,11 @@ import androidx.core.content.FileProvider;
 
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
-import com.squareup.picasso.Picasso;
+import com.google.android.material.progressindicator.LinearProgressIndicator;
 import com.squareup.picasso.Target;
 
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -60,6 +55,9 @@ public class EmployeeProfileActivity extends AppCompatActivity {
     private static final int REQ_CAPTURE_IMAGE = 502;
     private static final int REQ_PERMS = 1000;
     private static final int REQ_STORAGE_PERMS = 1001;
+    private static final String STATE_ID_CARD_FORMAT = "idCardFormat";
+    private static final int PROFILE_PHOTO_DP = 120; // ivProfilePhoto
+    private static final int ID_CARD_PHOTO_DP = 60; // ivIdCardPhoto
 
     private MaterialToolbar toolbar;
     private TextView tvEmployeeName, tvEmployeeId, tvEmail,
@@ -70,14 +68,18 @@ public class EmployeeProfileActivity extends AppCompatActivity {
     private TextView tvIdCardName, tvIdCardId, tvIdCardDesignation, tvIdCardDepartment, tvIdCardJoinDate;
     private View ivEditOverlay;
     private CardView cvIdCardPreview;
+    private LinearProgressIndicator idCardProgress;
 
     private Uri pendingCameraUri;
+    private File pendingCameraFile;
     private EmployeeRepository repository;
     private AuthRepository authRepository;
     private Employee currentEmployee;
     private String employeeId; // This is the empId (e.g., MAN251001)
     private String currentUserUid; // Firebase UID
     private OpenAction pendingAction;
+    private IdCardRenderer idCardRenderer;
+    private IdCardRenderer.Format idCardFormat = IdCardRenderer.Format.PNG;
 
     private final ActivityResultLauncher<Intent> saveDocumentLauncher =
             registerForActivityResult(
@@ -85,7 +87,7 @@ public class EmployeeProfileActivity extends AppCompatActivity {
                     result -> {
                         if (result.getResultCode() == RESULT_OK && result.getData() != null) {
                             Uri uri = result.getData().getData();
-                            if (uri != null) writeIdCardToUri(uri);
+                            if (uri != null) saveIdCardTo(uri);
                         }
                     });
 
@@ -96,8 +98,8 @@ public class EmployeeProfileActivity extends AppCompatActivity {
         setContentView(R.layout.activity_employee_profile);
 
         // Initialize repositories
-        repository = new EmployeeRepository(this);
-        authRepository = new AuthRepository(this);
+        repository = Repositories.employees(this);
+        authRepository = Repositories.auth(this);
         repository.open();
 
         // Get current user UID from Firebase Auth
@@ -111,19 +113,74 @@ public class EmployeeProfileActivity extends AppCompatActivity {
         // Get employee ID from intent (for backward compatibility)
         employeeId = getIntent().getStringExtra("employeeId");
 
+        // Chosen before the document picker opened, which may outlive this instance
+        if (savedInstanceState != null && savedInstanceState.getString(STATE_ID_CARD_FORMAT) != null) {
+            idCardFormat = IdCardRenderer.Format.valueOf(savedInstanceState.getString(STATE_ID_CARD_FORMAT));
+        }
+
         initializeViews();
         setupToolbar();
         loadEmployeeData();
         setupClickListeners();
     }
 
-    private void writeIdCardToUri(Uri uri) {
-        try (OutputStream os = getContentResolver().openOutputStream(uri)) {
-            createIdCardBitmap().compress(Bitmap.CompressFormat.PNG, 100, os);
-            Toast.makeText(this, "Saved ID Card", Toast.LENGTH_SHORT).show();
-        } catch (Exception e) {
-            Toast.makeText(this, "Save failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_ID_CARD_FORMAT, idCardFormat.name());
+    }
+
+    private void saveIdCardTo(Uri uri) {
+        if (currentEmployee == null) {
+            Toast.makeText(this, "Employee data not loaded", Toast.LENGTH_SHORT).show();
+            return;
         }
+        // The document's type is what the user picked, whatever this instance remembers
+        IdCardRenderer.Format format = IdCardRenderer.Format.forMimeType(getContentResolver().getType(uri));
+        if (format != null) idCardFormat = format;
+        exportIdCard(() -> getContentResolver().openOutputStream(uri), null);
+    }
+
+    /**
+     * Renders the ID card in the background and writes it, showing progress
+     * @param savedFile the file written, offered for sharing once saved
+     */
+    private void exportIdCard(IdCardRenderer.OutputOpener opener, @Nullable File savedFile) {
+        btnDownloadIdCard.setEnabled(false);
+        idCardProgress.setProgressCompat(0, false);
+        idCardProgress.setVisibility(View.VISIBLE);
+        idCardRenderer.export(currentEmployee, idCardFormat, opener, new IdCardRenderer.ExportCallback() {
+            @Override
+            public void onProgress(int percent) {
+                idCardProgress.setProgressCompat(percent, true);
+            }
+
+            @Override
+            public void onExported() {
+                if (isDestroyed()) return;
+                idCardExportFinished();
+                if (savedFile != null) {
+                    Toast.makeText(EmployeeProfileActivity.this,
+                            "ID Card saved to Downloads: " + savedFile.getName(), Toast.LENGTH_LONG).show();
+                    // Show option to share
+                    showShareDialog(savedFile);
+                } else {
+                    Toast.makeText(EmployeeProfileActivity.this, "Saved ID Card", Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                if (isDestroyed()) return;
+                idCardExportFinished();
+                Toast.makeText(EmployeeProfileActivity.this, "Save failed: " + message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void idCardExportFinished() {
+        btnDownloadIdCard.setEnabled(true);
+        idCardProgress.setVisibility(View.GONE);
     }
 
     private void initializeViews() {
@@ -155,6 +212,8 @@ public class EmployeeProfileActivity extends AppCompatActivity {
         tvIdCardDepartment = findViewById(R.id.tvIdCardDepartment);
         tvIdCardJoinDate = findViewById(R.id.tvIdCardJoinDate);
         cvIdCardPreview = findViewById(R.id.cvIdCardPreview);
+        idCardProgress = findViewById(R.id.idCardProgress);
+        idCardRenderer = new IdCardRenderer(this);
     }
 
     private void setupToolbar() {
@@ -245,15 +304,7 @@ public class EmployeeProfileActivity extends AppCompatActivity {
         }
 
         // Load profile photo
-        String photoPath = currentEmployee.getProfilePhotoPath();
-        if (photoPath != null && ImageUtils.isPhotoExists(photoPath)) {
-            Picasso.get()
-                    .load(new File(photoPath))
-                    .placeholder(R.drawable.ic_person_placeholder)
-                    .into(ivProfilePhoto);
-        } else {
-            ivProfilePhoto.setImageResource(R.drawable.ic_person_placeholder);
-        }
+        loadPhoto(ivProfilePhoto, PROFILE_PHOTO_DP);
     }
 
     private void updateIdCardData() {
@@ -282,15 +333,7 @@ public class EmployeeProfileActivity extends AppCompatActivity {
         }
 
         // Load profile photo for ID card
-        String photoPath = currentEmployee.getProfilePhotoPath();
-        if (photoPath != null && ImageUtils.isPhotoExists(photoPath)) {
-            Picasso.get()
-                    .load(new File(photoPath))
-                    .placeholder(R.drawable.ic_person_placeholder)
-                    .into(ivIdCardPhoto);
-        } else {
-            ivIdCardPhoto.setImageResource(R.drawable.ic_person_placeholder);
-        }
+        loadPhoto(ivIdCardPhoto, ID_CARD_PHOTO_DP);
     }
 
     private void setupClickListeners() {
@@ -305,9 +348,7 @@ public class EmployeeProfileActivity extends AppCompatActivity {
         btnPrintIdCard.setOnClickListener(v -> printIdCard());
 
         View.OnClickListener photoMenu = v -> {
-            boolean hasPhoto = currentEmployee != null &&
-                    currentEmployee.getProfilePhotoPath() != null &&
-                    ImageUtils.isPhotoExists(currentEmployee.getProfilePhotoPath());
+            boolean hasPhoto = PhotoCache.hasPhoto(currentEmployee);
 
             PhotoSelectionDialogFragment dlg = PhotoSelectionDialogFragment.newInstance(hasPhoto);
             dlg.setPhotoSelectionListener(new PhotoSelectionDialogFragment.PhotoSelectionListener() {
@@ -318,9 +359,10 @@ public class EmployeeProfileActivity extends AppCompatActivity {
                     ensurePermissionsThen(EmployeeProfileActivity.this::openGallery);
                 }
                 @Override public void onViewFullImageSelected() {
-                    if (currentEmployee != null && currentEmployee.getProfilePhotoPath() != null) {
+                    if (PhotoCache.hasPhoto(currentEmployee)) {
                         FullImageViewDialogFragment.newInstance(
-                                currentEmployee.getProfilePhotoPath()
+                                currentEmployee.getProfilePhotoPath(),
+                                currentEmployee.getProfilePhotoRef()
                         ).show(getSupportFragmentManager(), "FULL_IMAGE");
                     }
                 }
@@ -340,125 +382,38 @@ public class EmployeeProfileActivity extends AppCompatActivity {
             Toast.makeText(this, "Employee data not loaded", Toast.LENGTH_SHORT).show();
             return;
         }
-        // Launch system file picker to save PNG
+        if (!IdCardRenderer.Format.WEBP_LOSSLESS.isSupported()) {
+            chooseIdCardDestination(IdCardRenderer.Format.PNG);
+            return;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Download ID Card")
+                .setItems(new String[]{"PNG", "WebP (lossless, smaller)"}, (dialog, which) ->
+                        chooseIdCardDestination(which == 0
+                                ? IdCardRenderer.Format.PNG : IdCardRenderer.Format.WEBP_LOSSLESS))
+                .show();
+    }
+
+    private void chooseIdCardDestination(IdCardRenderer.Format format) {
+        idCardFormat = format;
+        // Launch system file picker to save the card
         Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
-        intent.setType("image/png");
+        intent.setType(format.mimeType);
         String name = "ID_Card_" + currentEmployee.getEmpId() + "_" +
                 new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date()) +
-                ".png";
+                format.extension;
         intent.putExtra(Intent.EXTRA_TITLE, name);
         saveDocumentLauncher.launch(intent);
     }
 
     private void generateAndSaveIdCard() {
-        try {
-            // Create bitmap from ID card view
-            Bitmap idCardBitmap = createIdCardBitmap();
-
-            // Save to Downloads folder
-            String fileName = "ID_Card_" + currentEmployee.getEmpId() + "_" +
-                    new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date()) + ".png";
-
-            File downloadsDir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
-            File file = new File(downloadsDir, fileName);
-
-            FileOutputStream fos = new FileOutputStream(file);
-            idCardBitmap.compress(Bitmap.CompressFormat.PNG, 100, fos);
-            fos.close();
-
-            Toast.makeText(this, "ID Card saved to Downloads: " + fileName, Toast.LENGTH_LONG).show();
-
-            // Show option to share
-            showShareDialog(file);
-
-        } catch (IOException e) {
-            Toast.makeText(this, "Failed to save ID card: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-        }
-    }
-
-    private Bitmap createIdCardBitmap() {
-        // Create a high-quality bitmap of the ID card
-        int width = 800;
-        int height = 500;
-        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(bitmap);
-
-        // Create gradient background
-        Paint backgroundPaint = new Paint();
-        backgroundPaint.setColor(Color.parseColor("#2196F3")); // Material Blue
-        canvas.drawRect(0, 0, width, height, backgroundPaint);
-
-        // Add company header
-        Paint headerPaint = new Paint();
-        headerPaint.setColor(Color.WHITE);
-        headerPaint.setTextSize(40);
-        headerPaint.setTypeface(Typeface.DEFAULT_BOLD);
-        headerPaint.setAntiAlias(true);
-        canvas.drawText("MatraSoftech", 40, 60, headerPaint);
-
-        Paint idBadgePaint = new Paint();
-        idBadgePaint.setColor(Color.parseColor("#40FFFFFF"));
-        canvas.drawRect(width - 200, 20, width - 40, 70, idBadgePaint);
-
-        Paint idTextPaint = new Paint();
-        idTextPaint.setColor(Color.WHITE);
-        idTextPaint.setTextSize(24);
-        idTextPaint.setAntiAlias(true);
-        canvas.drawText("ID CARD", width - 180, 50, idTextPaint);
-
-        // Add employee photo circle (placeholder)
-        Paint photoPaint = new Paint();
-        photoPaint.setColor(Color.WHITE);
-        photoPaint.setAntiAlias(true);
-        canvas.drawCircle(120, 200, 60, photoPaint);
-
-        // Try to load actual photo
-        String photoPath = currentEmployee.getProfilePhotoPath();
-        if (photoPath != null && ImageUtils.isPhotoExists(photoPath)) {
-            try {
-                Bitmap photoBitmap = ImageUtils.loadBitmapFromPath(photoPath);
-                if (photoBitmap != null) {
-                    // Scale and draw the photo
-                    Bitmap scaledPhoto = Bitmap.createScaledBitmap(photoBitmap, 120, 120, true);
-                    canvas.drawBitmap(scaledPhoto, 60, 140, null);
-                }
-            } catch (Exception e) {
-                // Use placeholder if photo loading fails
-            }
-        }
-
-        // Add employee details
-        Paint namePaint = new Paint();
-        namePaint.setColor(Color.WHITE);
-        namePaint.setTextSize(32);
-        namePaint.setTypeface(Typeface.DEFAULT_BOLD);
-        namePaint.setAntiAlias(true);
-        canvas.drawText(currentEmployee.getEmpName(), 220, 160, namePaint);
-
-        Paint detailsPaint = new Paint();
-        detailsPaint.setColor(Color.parseColor("#E0FFFFFF"));
-        detailsPaint.setTextSize(24);
-        detailsPaint.setAntiAlias(true);
-        canvas.drawText(currentEmployee.getEmpId(), 220, 190, detailsPaint);
-        canvas.drawText(currentEmployee.getDesignation() != null ?
-                currentEmployee.getDesignation() : "Employee", 220, 220, detailsPaint);
-        canvas.drawText((currentEmployee.getDepartment() != null ?
-                currentEmployee.getDepartment() : "General") + " Department", 220, 250, detailsPaint);
-
-        // Add footer
-        Paint footerPaint = new Paint();
-        footerPaint.setColor(Color.parseColor("#B0FFFFFF"));
-        footerPaint.setTextSize(18);
-        footerPaint.setAntiAlias(true);
-        canvas.drawText("Valid until further notice", 40, height - 40, footerPaint);
-
-        String joinYear = "2023";
-        if (currentEmployee.getJoinedDate() != null) {
-            joinYear = currentEmployee.getJoinedDate().substring(0, 4);
-        }
-        canvas.drawText("Since " + joinYear, width - 150, height - 40, footerPaint);
-
-        return bitmap;
+        // Save to Downloads folder
+        String fileName = "ID_Card_" + currentEmployee.getEmpId() + "_" +
+                new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date()) + ".png";
+        File downloadsDir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
+        File file = new File(downloadsDir, fileName);
+        idCardFormat = IdCardRenderer.Format.PNG;
+        exportIdCard(() -> new FileOutputStream(file), file);
     }
 
     private void showShareDialog(File file) {
@@ -515,14 +470,14 @@ public class EmployeeProfileActivity extends AppCompatActivity {
     private void removeProfilePhoto() {
         if (currentEmployee == null) return;
 
-        String path = currentEmployee.getProfilePhotoPath();
-        if (path != null) ImageUtils.deleteProfilePhoto(path);
+        ImageUtils.releaseProfilePhoto(this, currentEmployee.getProfilePhotoPath());
 
         repository.updateEmployeeProfilePhoto(currentUserUid, null, new EmployeeRepository.UpdateCallback() {
             @Override
             public void onSuccess(String message) {
                 runOnUiThread(() -> {
                     currentEmployee.setProfilePhotoPath(null);
+                    currentEmployee.setProfilePhotoRef(null);
                     ivProfilePhoto.setImageResource(R.drawable.ic_person_placeholder);
                     ivIdCardPhoto.setImageResource(R.drawable.ic_person_placeholder);
                     Toast.makeText(EmployeeProfileActivity.this, "Photo removed", Toast.LENGTH_SHORT).show();
@@ -601,13 +556,12 @@ public class EmployeeProfileActivity extends AppCompatActivity {
 
     private void openCamera() {
         try {
-            File dir = ImageUtils.getProfilePhotosDirectory(this);
-            String fn = ImageUtils.generatePhotoFileName(currentEmployee != null ?
-                    currentEmployee.getEmpId() : "temp");
-            File out = new File(dir, fn);
+            // Captured into the cache; handleImage keeps only the downsampled copy
+            File out = ImageUtils.createCameraCaptureFile(this);
             Uri uri = FileProvider.getUriForFile(
                     this, getPackageName() + ".provider", out);
             pendingCameraUri = uri;
+            pendingCameraFile = out;
             Intent c = new Intent(android.provider.MediaStore.ACTION_IMAGE_CAPTURE);
             c.putExtra(android.provider.MediaStore.EXTRA_OUTPUT, uri);
             c.addFlags(Intent.FLAG_GRANT_WRITE_URI_PERMISSION |
@@ -627,10 +581,11 @@ public class EmployeeProfileActivity extends AppCompatActivity {
             Uri uri = data.getData();
             getContentResolver().takePersistableUriPermission(
                     uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
-            handleImage(uri);
+            handleImage(uri, null);
         } else if (req == REQ_CAPTURE_IMAGE && pendingCameraUri != null) {
-            handleImage(pendingCameraUri);
+            handleImage(pendingCameraUri, pendingCameraFile);
             pendingCameraUri = null;
+            pendingCameraFile = null;
         } else if (req == REQUEST_CHANGE_PASSWORD) {
             // Reload data to update password status
             loadEmployeeData();
@@ -638,40 +593,84 @@ public class EmployeeProfileActivity extends AppCompatActivity {
         }
     }
 
-    private void handleImage(Uri uri) {
+    /**
+     * Store a picked or captured image as the profile photo
+     * @param captureFile temporary camera capture to delete once ingested, or null
+     */
+    private void handleImage(Uri uri, @Nullable File captureFile) {
         if (currentEmployee == null) return;
 
-        String saved = ImageUtils.saveImageToInternalStorage(
-                this, uri, currentEmployee.getEmpId());
-        if (saved != null) {
-            repository.updateEmployeeProfilePhoto(currentUserUid, saved, new EmployeeRepository.UpdateCallback() {
-                @Override
-                public void onSuccess(String message) {
-                    runOnUiThread(() -> {
-                        currentEmployee.setProfilePhotoPath(saved);
-                        Picasso.get()
-                                .load(new File(saved))
-                                .placeholder(R.drawable.ic_person_placeholder)
-                                .into(ivProfilePhoto);
-                        // Also update ID card photo
-                        Picasso.get()
-                                .load(new File(saved))
-                                .placeholder(R.drawable.ic_person_placeholder)
-                                .into(ivIdCardPhoto);
-                        Toast.makeText(EmployeeProfileActivity.this, "Photo updated", Toast.LENGTH_SHORT).show();
-                    });
-                }
+        // Decoding and re-encoding a camera-sized image takes a while; keep it off the main thread
+        ImageUtils.saveImageToInternalStorageAsync(this, uri, currentEmployee.getEmpId(),
+                new ImageUtils.SaveCallback() {
+                    @Override
+                    public void onSuccess(String path) {
+                        if (captureFile != null) captureFile.delete();
+                        updateProfilePhoto(path);
+                    }
 
-                @Override
-                public void onError(String error) {
-                    runOnUiThread(() -> {
-                        Toast.makeText(EmployeeProfileActivity.this, "Failed to update photo: " + error, Toast.LENGTH_SHORT).show();
-                    });
-                }
-            });
-        } else {
-            Toast.makeText(this, "Failed to save photo", Toast.LENGTH_SHORT).show();
+                    @Override
+                    public void onError(String error) {
+                        if (captureFile != null) captureFile.delete();
+                        Toast.makeText(EmployeeProfileActivity.this, "Failed to save photo", Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
+
+    private void updateProfilePhoto(String saved) {
+        if (isFinishing() || isDestroyed()) {
+            // Never referenced, so nothing else would release it
+            ImageUtils.releaseProfilePhoto(this, saved);
+            return;
+        }
+        repository.updateEmployeeProfilePhoto(currentUserUid, saved, new EmployeeRepository.UpdateCallback() {
+            @Override
+            public void onSuccess(String message) {
+                runOnUiThread(() -> {
+                    // Also right for the same photo again, which was acquired twice
+                    ImageUtils.releaseProfilePhoto(EmployeeProfileActivity.this,
+                            currentEmployee.getProfilePhotoPath());
+                    currentEmployee.setProfilePhotoPath(saved);
+                    currentEmployee.setProfilePhotoRef(null); // Set again once uploaded
+                    // Other employees' photos are unknown here, so only leftovers are swept
+                    ImageUtils.cleanupUnusedPhotos(EmployeeProfileActivity.this, null, null);
+                    loadPhoto(ivProfilePhoto, PROFILE_PHOTO_DP);
+                    // Also update ID card photo
+                    loadPhoto(ivIdCardPhoto, ID_CARD_PHOTO_DP);
+                    Toast.makeText(EmployeeProfileActivity.this, "Photo updated", Toast.LENGTH_SHORT).show();
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                runOnUiThread(() -> {
+                    ImageUtils.releaseProfilePhoto(EmployeeProfileActivity.this, saved);
+                    Toast.makeText(EmployeeProfileActivity.this, "Failed to update photo: " + error, Toast.LENGTH_SHORT).show();
+                });
+            }
+        });
+    }
+
+    /**
+     * Loads the employee's photo into a square view, decoded at the view's size,
+     * from this device or through the photo cache
+     */
+    private void loadPhoto(ImageView target, int sizeDp) {
+        target.setImageResource(R.drawable.ic_person_placeholder);
+        if (!PhotoCache.hasPhoto(currentEmployee)) {
+            target.setTag(null);
+            return;
         }
+        int sizePx = Math.round(sizeDp * getResources().getDisplayMetrics().density);
+        // A later load into the same view wins over one still in flight
+        String source = currentEmployee.getProfilePhotoPath() + "|" + currentEmployee.getProfilePhotoRef();
+        target.setTag(source);
+        // Full colour, as the profile photo is what gets printed and put on ID cards
+        PhotoCache.get(this).load(currentEmployee, sizePx, sizePx, Bitmap.Config.ARGB_8888, bitmap -> {
+            if (bitmap != null && !isDestroyed() && source.equals(target.getTag())) {
+                target.setImageBitmap(bitmap);
+            }
+        });
     }
 
     @Override
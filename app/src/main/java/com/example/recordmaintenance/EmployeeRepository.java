@@ -2,8 +2,11 @@ package com.example.recordmaintenance;
 
 import android.content.Context;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
 import com.google.firebase.database.ValueEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
@@ -11,11 +14,13 @@ import com.google.firebase.database.Query;
 import androidx.annotation.NonNull;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * Firebase-based Employee Repository
@@ -24,14 +29,39 @@ import java.util.Locale;
 public class EmployeeRepository {
 
     private static final String TAG = "EmployeeRepository";
+    /** Error passed when a photo's upload finishes after the employee's photo was changed */
+    public static final String PHOTO_CHANGED = "Profile photo has changed";
     private final DatabaseReference mDatabase;
     private final Context context;
     private final EmployeeCodeGenerator codeGenerator;
+    private final EmployeeLocalCache localCache;
+    private Query employeeSyncQuery;
+    private ChildEventListener employeeSyncListener;
+
+    /**
+     * For in-memory subclasses: initialises neither Firebase nor the local cache, so
+     * the subclass must override every method it is used through
+     */
+    protected EmployeeRepository() {
+        this.context = null;
+        this.mDatabase = null;
+        this.codeGenerator = null;
+        this.localCache = null;
+    }
 
     public EmployeeRepository(Context context) {
         this.context = context;
         this.mDatabase = FirebaseDatabase.getInstance().getReference();
         this.codeGenerator = new EmployeeCodeGenerator(context);
+        this.localCache = new EmployeeLocalCache(context);
+    }
+
+    /**
+     * Get the employees cached on the device by the last sync (admin only).
+     * Returns immediately with possibly stale data; startEmployeeSync revalidates it.
+     */
+    public void getCachedEmployees(EmployeeListCallback callback) {
+        localCache.loadAll(callback);
     }
 
     /**
@@ -59,6 +89,131 @@ public class EmployeeRepository {
                 });
     }
 
+    /**
+     * Get one page of employees (admin only) using a keyset cursor.
+     * Pass a null cursor for the first page; the callback receives the cursor for the
+     * next page, or null once the last page has been delivered.
+     */
+    public void getEmployeesPage(String cursor, int pageSize, EmployeePageCallback callback) {
+        Query query = mDatabase.child("users").orderByChild("role");
+        if (cursor == null) {
+            query = query.equalTo("employee");
+        } else {
+            // Siblings with the same role are ordered by key, so the last uid is the cursor
+            query = query.startAfter("employee", cursor).endAt("employee");
+        }
+
+        // Fetch one extra record to know whether another page exists
+        query.limitToFirst(pageSize + 1)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+                        List<Employee> employees = new ArrayList<>();
+                        String lastKey = null;
+                        int count = 0;
+                        for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                            if (count == pageSize) {
+                                break;
+                            }
+                            count++;
+                            lastKey = snapshot.getKey();
+                            Employee employee = convertToEmployee(snapshot);
+                            if (employee != null) {
+                                employees.add(employee);
+                            }
+                        }
+                        String nextCursor = dataSnapshot.getChildrenCount() > pageSize ? lastKey : null;
+                        callback.onSuccess(employees, nextCursor);
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError databaseError) {
+                        callback.onError(databaseError.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Start live, incremental sync of the employee list (admin only).
+     * The existing employees are delivered once as upserts; afterwards only the
+     * record that was added, changed or removed is delivered. Every delta is also
+     * written through to the local cache.
+     */
+    public void startEmployeeSync(EmployeeSyncCallback callback) {
+        stopEmployeeSync();
+
+        employeeSyncQuery = mDatabase.child("users").orderByChild("role").equalTo("employee");
+        employeeSyncListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+                Employee employee = convertToEmployee(snapshot);
+                if (employee != null) {
+                    localCache.upsert(employee);
+                    callback.onEmployeeUpserted(employee);
+                }
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+                Employee employee = convertToEmployee(snapshot);
+                if (employee != null) {
+                    localCache.upsert(employee);
+                    callback.onEmployeeUpserted(employee);
+                }
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                localCache.delete(snapshot.getKey());
+                callback.onEmployeeRemoved(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+                // Ordering is only by role, so moves carry no information for the list
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                callback.onError(databaseError.getMessage());
+            }
+        };
+        employeeSyncQuery.addChildEventListener(employeeSyncListener);
+
+        // Value events fire after the initial child events and are served from the
+        // data the child listener already holds, so this marks the end of the replay
+        Query initialQuery = employeeSyncQuery;
+        initialQuery.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+                if (initialQuery != employeeSyncQuery) return; // Sync restarted meanwhile
+
+                Set<String> uids = new HashSet<>();
+                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                    uids.add(snapshot.getKey());
+                }
+                localCache.retainOnly(uids);
+                callback.onInitialSyncComplete(uids);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                // Reported through the child listener
+            }
+        });
+    }
+
+    /**
+     * Stop live sync started with startEmployeeSync
+     */
+    public void stopEmployeeSync() {
+        if (employeeSyncQuery != null && employeeSyncListener != null) {
+            employeeSyncQuery.removeEventListener(employeeSyncListener);
+        }
+        employeeSyncQuery = null;
+        employeeSyncListener = null;
+    }
+
     /**
      * Get employee by Firebase UID
      */
@@ -281,12 +436,22 @@ public class EmployeeRepository {
     }
 
     /**
-     * Update employee profile photo path
+     * Update employee profile photo path. The photo is then uploaded to Firebase
+     * Storage in the background and recorded as profilePhotoRef, so other devices
+     * can show it; until then profilePhotoRef is cleared.
      */
     public void updateEmployeeProfilePhoto(String uid, String photoPath, UpdateCallback callback) {
-        mDatabase.child("users").child(uid).child("profilePhotoPath").setValue(photoPath)
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("profilePhotoPath", photoPath);
+        updates.put("profilePhotoRef", null);
+        mDatabase.child("users").child(uid).updateChildren(updates)
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
+                        if (photoPath != null) {
+                            PhotoUploadWorker.enqueue(context, uid, photoPath);
+                        } else {
+                            PhotoUploadWorker.cancel(context, uid);
+                        }
                         callback.onSuccess("Profile photo updated");
                     } else {
                         String errorMsg = task.getException() != null ?
@@ -296,6 +461,43 @@ public class EmployeeRepository {
                 });
     }
 
+    /**
+     * Record the Storage path of an uploaded profile photo, unless the employee's
+     * photo has changed since; then the callback gets PHOTO_CHANGED. The check and
+     * the write run in one transaction on the user node, so a photo changed in
+     * between cannot be given this upload's ref.
+     */
+    public void updateEmployeeProfilePhoto(String uid, String photoPath, String photoRef, UpdateCallback callback) {
+        mDatabase.child("users").child(uid).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                if (currentData.getValue() == null) {
+                    // Nothing cached locally yet; the server retries with its data
+                    return Transaction.success(currentData);
+                }
+                if (!photoPath.equals(currentData.child("profilePhotoPath").getValue(String.class))) {
+                    return Transaction.abort();
+                }
+                currentData.child("profilePhotoRef").setValue(photoRef);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError databaseError, boolean committed, DataSnapshot currentData) {
+                if (databaseError != null) {
+                    callback.onError(databaseError.getMessage());
+                } else if (!committed || currentData == null
+                        || !photoRef.equals(currentData.child("profilePhotoRef").getValue(String.class))) {
+                    // Aborted, or committed unchanged because the employee is gone
+                    callback.onError(PHOTO_CHANGED);
+                } else {
+                    callback.onSuccess("Profile photo uploaded");
+                }
+            }
+        });
+    }
+
     /**
      * Mark password as changed by employee
      */
@@ -321,36 +523,7 @@ public class EmployeeRepository {
      */
     private Employee convertToEmployee(DataSnapshot snapshot) {
         try {
-            Employee employee = new Employee();
-            employee.setUid(snapshot.getKey());
-            employee.setEmpId(snapshot.child("empId").getValue(String.class));
-            employee.setEmpName(snapshot.child("name").getValue(String.class));
-            employee.setEmpEmail(snapshot.child("email").getValue(String.class));
-            employee.setRole(snapshot.child("role").getValue(String.class));
-            employee.setDesignation(snapshot.child("designation").getValue(String.class));
-            employee.setDepartment(snapshot.child("department").getValue(String.class));
-
-            // Handle salary safely
-            Object salaryObj = snapshot.child("salary").getValue();
-            if (salaryObj instanceof Number) {
-                employee.setSalary(((Number) salaryObj).doubleValue());
-            } else {
-                employee.setSalary(0.0);
-            }
-
-            employee.setJoinedDate(snapshot.child("joinedDate").getValue(String.class));
-            employee.setAddressLine1(snapshot.child("addressLine1").getValue(String.class));
-            employee.setAddressLine2(snapshot.child("addressLine2").getValue(String.class));
-            employee.setCity(snapshot.child("city").getValue(String.class));
-            employee.setState(snapshot.child("state").getValue(String.class));
-            employee.setCountry(snapshot.child("country").getValue(String.class));
-            employee.setProfilePhotoPath(snapshot.child("profilePhotoPath").getValue(String.class));
-
-            // Handle boolean safely
-            Boolean passwordChanged = snapshot.child("passwordChanged").getValue(Boolean.class);
-            employee.setPasswordChanged(passwordChanged != null ? passwordChanged : false);
-
-            return employee;
+            return EmployeeSnapshotMapper.fromSnapshot(snapshot);
         } catch (Exception e) {
             android.util.Log.e(TAG, "Error converting snapshot to Employee", e);
             return null;
@@ -405,6 +578,18 @@ public class EmployeeRepository {
         void onError(String error);
     }
 
+    public interface EmployeePageCallback {
+        void onSuccess(List<Employee> employees, String nextCursor);
+        void onError(String error);
+    }
+
+    public interface EmployeeSyncCallback {
+        void onEmployeeUpserted(Employee employee);
+        void onEmployeeRemoved(String uid);
+        void onInitialSyncComplete(Set<String> uids);
+        void onError(String error);
+    }
+
     public interface EmployeeCallback {
         void onSuccess(Employee employee);
         void onError(String error);
@@ -473,6 +658,7 @@ public class EmployeeRepository {
     }
 
     public void close() {
-        // No cleanup needed for Firebase
+        stopEmployeeSync();
+        if (localCache != null) localCache.close();
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.example.recordmaintenance;
+
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+
+/**
+ * Display text of one employee row, formatted once per data change so that
+ * binding a row only hands ready-made strings to its views.
+ */
+public final class EmployeeRowModel {
+
+    private static final String MISSING = "N/A";
+
+    public final String name;
+    public final String empId;
+    public final String designation;
+    public final String department;
+    public final String salary;
+    public final String city;
+    public final String joinedDate;
+    public final String email;
+
+    private EmployeeRowModel(String name, String empId, String designation, String department,
+                             String salary, String city, String joinedDate, String email) {
+        this.name = name;
+        this.empId = empId;
+        this.designation = designation;
+        this.department = department;
+        this.salary = salary;
+        this.city = city;
+        this.joinedDate = joinedDate;
+        this.email = email;
+    }
+
+    /**
+     * Salary format matching the former "%.0f": no grouping, rounded half up.
+     * NumberFormat is not thread-safe, so each caller keeps its own.
+     */
+    public static NumberFormat newSalaryFormat() {
+        NumberFormat format = NumberFormat.getInstance();
+        format.setGroupingUsed(false);
+        format.setMaximumFractionDigits(0);
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    }
+
+    /**
+     * Formats a store row
+     * @return the model, or null if the row has been removed
+     */
+    public static EmployeeRowModel from(EmployeeStore store, int row, NumberFormat salaryFormat) {
+        // Read the row under the store's lock so a concurrent delta cannot tear it
+        synchronized (store) {
+            if (!store.isLive(row)) return null;
+            return new EmployeeRowModel(
+                    store.getName(row),
+                    orMissing(store.getEmpId(row)),
+                    orMissing(store.getDesignation(row)),
+                    orMissing(store.getDepartment(row)),
+                    "₹" + salaryFormat.format(store.getSalary(row)),
+                    orMissing(store.getCity(row)),
+                    orMissing(store.getJoinedDate(row)),
+                    orMissing(store.getEmail(row)));
+        }
+    }
+
+    private static String orMissing(String value) {
+        return value != null ? value : MISSING;
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.recordmaintenance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Inverted trigram index over the searchable employee fields, keyed by EmployeeStore row.
+ * Name, email and employee ID form the basic search scope; designation and
+ * department are added for the advanced search query.
+ *
+ * Every field is lower-cased and padded with two separators before its trigrams are
+ * taken, so any substring of one or two characters is the prefix of some trigram.
+ * Longer queries intersect the posting lists of their trigrams; shorter ones take the
+ * union of a trigram prefix range. Candidates are then verified against the normalized
+ * copies of those fields that the store keeps, which also restricts matches to the
+ * requested scope; the index keeps no copy of the text.
+ *
+ * The index is built lazily on the first search after a store reset and is updated
+ * incrementally for single-employee deltas.
+ */
+public class EmployeeSearchIndex implements EmployeeStore.ChangeListener {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final EmployeeStore store;
+    private final TreeMap<Long, Postings> postingsByGram = new TreeMap<>();
+    private boolean built;
+
+    public EmployeeSearchIndex(EmployeeStore store) {
+        this.store = store;
+        store.addChangeListener(this);
+    }
+
+    public void release() {
+        store.removeChangeListener(this);
+    }
+
+    /**
+     * Rows whose fields contain the query as a substring (case-insensitive)
+     * @param includeJobFields also match designation and department
+     */
+    public synchronized BitSet search(String query, boolean includeJobFields) {
+        ensureBuilt();
+
+        BitSet result = new BitSet();
+        String q = normalize(query).trim();
+        if (q.isEmpty()) {
+            return result;
+        }
+
+        for (Postings candidates : candidatePostings(q)) {
+            for (int i = 0; i < candidates.size; i++) {
+                int row = candidates.rows[i];
+                if (result.get(row)) continue;
+                if (contains(store.getSearchName(row), q) || contains(store.getSearchEmail(row), q)
+                        || contains(store.getSearchEmpId(row), q)
+                        || (includeJobFields && (contains(store.getSearchDesignation(row), q)
+                        || contains(store.getSearchDepartment(row), q)))) {
+                    result.set(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Posting lists whose union contains every row that may match the query
+     */
+    private List<Postings> candidatePostings(String q) {
+        if (q.length() < 3) {
+            // Every occurrence of a short query starts some trigram
+            long from = gramKey(q, 0, q.length());
+            long to = from | (q.length() == 1 ? 0xFFFFFFFFL : 0xFFFFL);
+            return new ArrayList<>(postingsByGram.subMap(from, true, to, true).values());
+        }
+
+        // Intersect the trigram posting lists, smallest first
+        int gramCount = q.length() - 2;
+        Postings[] lists = new Postings[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            Postings postings = postingsByGram.get(gramKey(q, i, 3));
+            if (postings == null) {
+                return Collections.emptyList();
+            }
+            lists[i] = postings;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        Postings intersection = lists[0].copy();
+        for (int i = 1; i < lists.length && intersection.size > 0; i++) {
+            intersection.retainAll(lists[i]);
+        }
+        return Collections.singletonList(intersection);
+    }
+
+    private static boolean contains(String normalizedField, String q) {
+        return normalizedField != null && normalizedField.contains(q);
+    }
+
+    private void ensureBuilt() {
+        if (built) return;
+
+        postingsByGram.clear();
+        int rowCount = store.getRowCount();
+        for (int row = 0; row < rowCount; row++) {
+            // Read the normalized columns rather than materializing every employee
+            if (store.isLive(row)) {
+                addRow(row, store.getSearchName(row), store.getSearchEmail(row), store.getSearchEmpId(row),
+                        store.getSearchDesignation(row), store.getSearchDepartment(row));
+            }
+        }
+        built = true;
+    }
+
+    private void addRow(int row, Employee employee) {
+        addRow(row, searchText(employee.getEmpName()), searchText(employee.getEmpEmail()),
+                searchText(employee.getEmpId()), searchText(employee.getDesignation()),
+                searchText(employee.getDepartment()));
+    }
+
+    /**
+     * Adds the row's trigrams, taken from fields already normalized
+     */
+    private void addRow(int row, String name, String email, String empId, String designation, String department) {
+        addGrams(row, basicText(name, email, empId));
+        addGrams(row, jobText(designation, department));
+    }
+
+    /**
+     * Removes the row's trigrams, taken from the employee as it was indexed
+     */
+    private void removeRow(int row, Employee employee) {
+        removeGrams(row, basicText(searchText(employee.getEmpName()), searchText(employee.getEmpEmail()),
+                searchText(employee.getEmpId())));
+        removeGrams(row, jobText(searchText(employee.getDesignation()), searchText(employee.getDepartment())));
+    }
+
+    private static String basicText(String name, String email, String empId) {
+        return field(name) + field(email) + field(empId);
+    }
+
+    private static String jobText(String designation, String department) {
+        return field(designation) + field(department);
+    }
+
+    private void addGrams(int row, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            Long key = gramKey(text, i, 3);
+            Postings postings = postingsByGram.get(key);
+            if (postings == null) {
+                postings = new Postings();
+                postingsByGram.put(key, postings);
+            }
+            postings.add(row);
+        }
+    }
+
+    private void removeGrams(int row, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            Long key = gramKey(text, i, 3);
+            Postings postings = postingsByGram.get(key);
+            if (postings != null) {
+                postings.remove(row);
+                if (postings.size == 0) {
+                    postingsByGram.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs up to three chars into a key whose order matches string order,
+     * so that all trigrams with a given prefix form a contiguous key range
+     */
+    private static long gramKey(String s, int start, int length) {
+        long key = 0;
+        for (int i = 0; i < 3; i++) {
+            key = (key << 16) | (i < length ? s.charAt(start + i) : 0);
+        }
+        return key;
+    }
+
+    private static String field(String normalizedValue) {
+        return (normalizedValue != null ? normalizedValue : "") + SEPARATOR + SEPARATOR;
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    static String searchText(String value) {
+        return value != null ? normalize(value) : null;
+    }
+
+    // Keep the index in step with the store
+
+    @Override
+    public synchronized void onEmployeeAdded(int row, Employee employee) {
+        if (built) addRow(row, employee);
+    }
+
+    @Override
+    public synchronized void onEmployeeChanged(int row, Employee oldEmployee, Employee newEmployee) {
+        if (!built) return;
+        removeRow(row, oldEmployee);
+        addRow(row, newEmployee);
+    }
+
+    @Override
+    public synchronized void onEmployeeRemoved(int row, Employee employee) {
+        if (built) removeRow(row, employee);
+    }
+
+    @Override
+    public synchronized void onStoreReset() {
+        // Rebuilt on the next search rather than on the caller's thread
+        built = false;
+        postingsByGram.clear();
+    }
+
+    /**
+     * Sorted list of store rows containing one trigram
+     */
+    private static final class Postings {
+        int[] rows = new int[4];
+        int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] >= row) {
+                int pos = Arrays.binarySearch(rows, 0, size, row);
+                if (pos >= 0) return;
+                insertAt(-pos - 1, row);
+            } else {
+                insertAt(size, row);
+            }
+        }
+
+        void remove(int row) {
+            int pos = Arrays.binarySearch(rows, 0, size, row);
+            if (pos < 0) return;
+            System.arraycopy(rows, pos + 1, rows, pos, size - pos - 1);
+            size--;
+        }
+
+        void retainAll(Postings other) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                int row = rows[i];
+                while (j < other.size && other.rows[j] < row) j++;
+                if (j == other.size) break;
+                if (other.rows[j] == row) rows[kept++] = row;
+            }
+            size = kept;
+        }
+
+        Postings copy() {
+            Postings copy = new Postings();
+            copy.rows = Arrays.copyOf(rows, Math.max(size, 1));
+            copy.size = size;
+            return copy;
+        }
+
+        private void insertAt(int pos, int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            System.arraycopy(rows, pos, rows, pos + 1, size - pos);
+            rows[pos] = row;
+            size++;
+        }
+    }
+}
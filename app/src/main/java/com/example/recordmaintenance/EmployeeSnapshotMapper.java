@@ -0,0 +1,75 @@
+package com.example.recordmaintenance;
+
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.Map;
+
+/**
+ * Maps Firebase user records to Employee objects.
+ * The record is materialized once with getValue() and its fields are filled in a
+ * single pass over the resulting map, instead of one child lookup and typed
+ * conversion per field.
+ */
+public final class EmployeeSnapshotMapper {
+
+    private EmployeeSnapshotMapper() {}
+
+    /**
+     * Converts a users/{uid} snapshot to an Employee
+     * @return the employee, or null if the snapshot is not an object
+     */
+    public static Employee fromSnapshot(DataSnapshot snapshot) {
+        Object value = snapshot.getValue();
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> fields = (Map<String, Object>) value;
+        return fromMap(snapshot.getKey(), fields);
+    }
+
+    /**
+     * Converts the field map of a users/{uid} record to an Employee
+     */
+    public static Employee fromMap(String uid, Map<String, Object> fields) {
+        Employee employee = new Employee();
+        employee.setUid(uid);
+
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Object value = field.getValue();
+            switch (field.getKey()) {
+                case "empId": employee.setEmpId(asString(value)); break;
+                case "name": employee.setEmpName(asString(value)); break;
+                case "email": employee.setEmpEmail(asString(value)); break;
+                case "role": employee.setRole(asString(value)); break;
+                case "designation": employee.setDesignation(asString(value)); break;
+                case "department": employee.setDepartment(asString(value)); break;
+                case "salary":
+                    // Whole numbers arrive as Long, others as Double
+                    employee.setSalary(value instanceof Number ? ((Number) value).doubleValue() : 0.0);
+                    break;
+                case "joinedDate": employee.setJoinedDate(asString(value)); break;
+                case "addressLine1": employee.setAddressLine1(asString(value)); break;
+                case "addressLine2": employee.setAddressLine2(asString(value)); break;
+                case "city": employee.setCity(asString(value)); break;
+                case "state": employee.setState(asString(value)); break;
+                case "country": employee.setCountry(asString(value)); break;
+                case "profilePhotoPath": employee.setProfilePhotoPath(asString(value)); break;
+                case "profilePhotoRef": employee.setProfilePhotoRef(asString(value)); break;
+                case "passwordChanged": employee.setPasswordChanged(Boolean.TRUE.equals(value)); break;
+                case "createdAt": employee.setCreatedAt(asString(value)); break;
+                case "updatedAt": employee.setUpdatedAt(asString(value)); break;
+                case "createdBy": employee.setCreatedBy(asString(value)); break;
+                default: break; // Fields the app does not use (uid, passwordChangedAt, ...)
+            }
+        }
+        return employee;
+    }
+
+    private static String asString(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,554 @@
+package com.example.recordmaintenance;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Pre-sorted permutations of the EmployeeStore rows, one per sort key.
+ * Text keys are compared through CollationKeys computed once per row, so ordering
+ * a filtered list is a select over an existing permutation (or a primitive sort of
+ * precomputed ranks for small lists) instead of a comparator-driven re-sort.
+ *
+ * Each ascending and descending SortCriteria pair shares one permutation. Rows with
+ * equal keys keep their store order in both directions. Joined dates sort by their
+ * parsed epoch day, and employees without a valid joined date sort last either way.
+ * Permutations are built lazily, dropped on a store reset and kept in step with
+ * single-employee deltas by moving only the changed row. A build runs without the
+ * index's lock, so deltas arriving on the main thread meanwhile are not held up;
+ * the rows they touch are put right before the permutation is published.
+ */
+public class EmployeeSortIndex implements EmployeeStore.ChangeListener {
+
+    private enum Key { NAME, SALARY, JOINED_DATE, DESIGNATION, DEPARTMENT }
+
+    private final EmployeeStore store;
+    private final Collator collator;
+    private final Permutation[] permutations = new Permutation[Key.values().length];
+    // One build at a time, with its own collator; collators are not thread-safe
+    private final Object buildLock = new Object();
+    private final Collator buildCollator;
+    // Rows changed by deltas while their key's permutation is being built
+    private final BitSet[] changedDuringBuild = new BitSet[Key.values().length];
+    private int resets;
+
+    public EmployeeSortIndex(EmployeeStore store) {
+        this.store = store;
+        this.collator = Collator.getInstance();
+        collator.setStrength(Collator.SECONDARY); // Ignore case like compareToIgnoreCase
+        this.buildCollator = (Collator) collator.clone();
+        store.addChangeListener(this);
+    }
+
+    public void release() {
+        store.removeChangeListener(this);
+    }
+
+    /**
+     * Orders a set of store rows by the given criteria
+     * @param rows rows to order
+     * @param count number of rows set in {@code rows}
+     */
+    public int[] order(EmployeeAdapter.SortCriteria criteria, BitSet rows, int count) {
+        Key key = keyOf(criteria);
+        return order(key, permutation(key), isDescending(criteria), rows, count);
+    }
+
+    private synchronized int[] order(Key key, Permutation permutation, boolean descending, BitSet rows, int count) {
+        ensureRanks(key, permutation);
+        int[] result = new int[count];
+
+        // Few rows: sort their ranks directly instead of walking the whole permutation
+        if ((long) count * (32 - Integer.numberOfLeadingZeros(count)) < permutation.size) {
+            long[] keys = new long[count];
+            int n = 0;
+            for (int row = rows.nextSetBit(0); row >= 0 && n < count; row = rows.nextSetBit(row + 1)) {
+                if (row >= permutation.rank.length) break; // Added after the rows were collected
+                keys[n++] = ((long) permutation.effectiveRank(row, descending) << 32) | row;
+            }
+            Arrays.sort(keys, 0, n);
+            for (int i = 0; i < n; i++) {
+                result[i] = (int) keys[i];
+            }
+            return n == count ? result : Arrays.copyOf(result, n);
+        }
+
+        int n = permutation.select(rows, descending, result);
+        return n == count ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Compares two store rows the way {@link #order} orders them, except for ties
+     */
+    public synchronized int compare(EmployeeAdapter.SortCriteria criteria, int row1, int row2) {
+        Key key = keyOf(criteria);
+        if (key == Key.JOINED_DATE) {
+            return compareDays(store.getJoinedDay(row1), store.getJoinedDay(row2), isDescending(criteria));
+        }
+        int result = compareRows(key, row1, row2);
+        return isDescending(criteria) ? -result : result;
+    }
+
+    /**
+     * Compares a store row with an employee's fields, which need not be in the store
+     * any more, the way {@link #compare(EmployeeAdapter.SortCriteria, int, int)} does
+     */
+    public synchronized int compare(EmployeeAdapter.SortCriteria criteria, int row, Employee employee) {
+        Key key = keyOf(criteria);
+        if (key == Key.JOINED_DATE) {
+            return compareDays(store.getJoinedDay(row), JoinedDates.toEpochDay(employee.getJoinedDate()),
+                    isDescending(criteria));
+        }
+        int result = compareKey(key, row, employee);
+        return isDescending(criteria) ? -result : result;
+    }
+
+    /**
+     * Missing or unparsable dates last in both directions
+     */
+    private static int compareDays(int d1, int d2, boolean descending) {
+        if (d1 == JoinedDates.UNKNOWN || d2 == JoinedDates.UNKNOWN) {
+            return d1 == d2 ? 0 : (d1 == JoinedDates.UNKNOWN ? 1 : -1);
+        }
+        return descending ? Integer.compare(d2, d1) : Integer.compare(d1, d2);
+    }
+
+    /**
+     * Rows whose salary lies in [min, max], as a binary-searched slice of the salary permutation
+     * @return the rows, or null if every row is in range
+     */
+    public BitSet salaryRange(double min, double max) {
+        return salaryRange(permutation(Key.SALARY), min, max);
+    }
+
+    private synchronized BitSet salaryRange(Permutation permutation, double min, double max) {
+        int[] sorted = permutation.sorted;
+
+        // First position with salary >= min, then first position with salary > max
+        int from = 0;
+        int to = permutation.size;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (store.getSalary(sorted[mid]) < min) from = mid + 1; else to = mid;
+        }
+        int end = permutation.size;
+        to = from;
+        while (to < end) {
+            int mid = (to + end) >>> 1;
+            if (store.getSalary(sorted[mid]) <= max) to = mid + 1; else end = mid;
+        }
+
+        if (from == 0 && to == permutation.size) return null;
+        return rowsAt(sorted, from, to);
+    }
+
+    /**
+     * Rows whose parsed joined date lies in [fromDay, toDay], as a binary-searched
+     * slice of the joined-date permutation; rows without a valid date never match
+     */
+    public BitSet joinedDayRange(int fromDay, int toDay) {
+        return joinedDayRange(permutation(Key.JOINED_DATE), fromDay, toDay);
+    }
+
+    private synchronized BitSet joinedDayRange(Permutation permutation, int fromDay, int toDay) {
+        int[] sorted = permutation.sorted;
+        int keyed = permutation.size - permutation.nullCount;
+
+        int from = 0;
+        int to = keyed;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (store.getJoinedDay(sorted[mid]) < fromDay) from = mid + 1; else to = mid;
+        }
+        int end = keyed;
+        to = from;
+        while (to < end) {
+            int mid = (to + end) >>> 1;
+            if (store.getJoinedDay(sorted[mid]) <= toDay) to = mid + 1; else end = mid;
+        }
+        return rowsAt(sorted, from, to);
+    }
+
+    private BitSet rowsAt(int[] sorted, int from, int to) {
+        BitSet rows = new BitSet(store.getRowCount());
+        for (int i = from; i < to; i++) {
+            rows.set(sorted[i]);
+        }
+        return rows;
+    }
+
+    /**
+     * The key's permutation, building it if needed. Called without holding the index's
+     * lock: a build reads every row, which must not hold up deltas on the main thread.
+     */
+    private Permutation permutation(Key key) {
+        int k = key.ordinal();
+        synchronized (this) {
+            if (permutations[k] != null) return permutations[k];
+        }
+        synchronized (buildLock) {
+            int buildResets;
+            synchronized (this) {
+                if (permutations[k] != null) return permutations[k]; // Built while waiting
+                changedDuringBuild[k] = new BitSet();
+                buildResets = resets;
+            }
+            Permutation built = build(key);
+            synchronized (this) {
+                BitSet changed = changedDuringBuild[k];
+                changedDuringBuild[k] = null;
+                // Rows renumbered by a reset; good for this caller only
+                if (buildResets != resets) return built;
+                if (!changed.isEmpty()) {
+                    // Their keys may have been read mid-change, so they are sorted again
+                    removeRows(built, changed);
+                    for (int row = changed.nextSetBit(0); row >= 0; row = changed.nextSetBit(row + 1)) {
+                        if (store.isLive(row)) insertRow(key, built, row);
+                    }
+                }
+                permutations[k] = built;
+                return built;
+            }
+        }
+    }
+
+    private Permutation build(Key key) {
+        int rowCount = store.getRowCount();
+        int[] liveRows = new int[rowCount];
+        int live = 0;
+        int nulls = 0;
+        Object[] keys = new Object[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            if (!store.isLive(row)) continue;
+            liveRows[live++] = row;
+            switch (key) {
+                case SALARY:
+                    keys[row] = store.getSalary(row);
+                    break;
+                case JOINED_DATE:
+                    int joinedDay = store.getJoinedDay(row);
+                    keys[row] = joinedDay != JoinedDates.UNKNOWN ? joinedDay : null;
+                    if (keys[row] == null) nulls++;
+                    break;
+                default:
+                    keys[row] = buildCollator.getCollationKey(text(key, row));
+                    break;
+            }
+        }
+
+        // Boxed rows for a stable object sort; ties keep row order
+        Integer[] order = new Integer[live];
+        for (int i = 0; i < live; i++) {
+            order[i] = liveRows[i];
+        }
+        Arrays.sort(order, (r1, r2) -> compareKeys(keys[r1], keys[r2]));
+
+        Permutation permutation = new Permutation(live, rowCount, nulls);
+        int rank = -1;
+        Object previous = null;
+        for (int i = 0; i < live; i++) {
+            int row = order[i];
+            if (i == 0 || compareKeys(previous, keys[row]) != 0) {
+                rank++;
+                previous = keys[row];
+            }
+            permutation.sorted[i] = row;
+            permutation.rank[row] = rank;
+        }
+        permutation.maxRank = rank;
+        return permutation;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareKeys(Object k1, Object k2) {
+        if (k1 == null || k2 == null) {
+            return k1 == null ? (k2 == null ? 0 : 1) : -1;
+        }
+        return ((Comparable<Object>) k1).compareTo(k2);
+    }
+
+    private String text(Key key, int row) {
+        String value;
+        switch (key) {
+            case NAME: value = store.getName(row); break;
+            case DESIGNATION: value = store.getDesignation(row); break;
+            default: value = store.getDepartment(row); break;
+        }
+        return value != null ? value : "";
+    }
+
+    private static String text(Key key, Employee employee) {
+        String value;
+        switch (key) {
+            case NAME: value = employee.getEmpName(); break;
+            case DESIGNATION: value = employee.getDesignation(); break;
+            default: value = employee.getDepartment(); break;
+        }
+        return value != null ? value : "";
+    }
+
+    private static Key keyOf(EmployeeAdapter.SortCriteria criteria) {
+        switch (criteria) {
+            case NAME_ASC: case NAME_DESC: return Key.NAME;
+            case SALARY_ASC: case SALARY_DESC: return Key.SALARY;
+            case JOINED_DATE_ASC: case JOINED_DATE_DESC: return Key.JOINED_DATE;
+            case DESIGNATION_ASC: case DESIGNATION_DESC: return Key.DESIGNATION;
+            default: return Key.DEPARTMENT;
+        }
+    }
+
+    private static boolean isDescending(EmployeeAdapter.SortCriteria criteria) {
+        return criteria.name().endsWith("_DESC");
+    }
+
+    private synchronized void invalidate() {
+        Arrays.fill(permutations, null);
+        resets++;
+    }
+
+    /**
+     * Compares the keys of two store rows the way the permutations order them, nulls last
+     */
+    private int compareRows(Key key, int row1, int row2) {
+        switch (key) {
+            case SALARY:
+                return Double.compare(store.getSalary(row1), store.getSalary(row2));
+            case JOINED_DATE:
+                return compareDays(store.getJoinedDay(row1), store.getJoinedDay(row2), false);
+            default:
+                return collator.compare(text(key, row1), text(key, row2));
+        }
+    }
+
+    /**
+     * Compares a row's key in the store with an employee's key, as compareRows does
+     */
+    private int compareKey(Key key, int row, Employee employee) {
+        switch (key) {
+            case SALARY:
+                return Double.compare(store.getSalary(row), employee.getSalary());
+            case JOINED_DATE:
+                return compareDays(store.getJoinedDay(row), JoinedDates.toEpochDay(employee.getJoinedDate()), false);
+            default:
+                return collator.compare(text(key, row), text(key, employee));
+        }
+    }
+
+    private static boolean sameKey(Key key, Employee e1, Employee e2) {
+        switch (key) {
+            case NAME: return Objects.equals(e1.getEmpName(), e2.getEmpName());
+            case SALARY: return Double.compare(e1.getSalary(), e2.getSalary()) == 0;
+            case JOINED_DATE: return Objects.equals(e1.getJoinedDate(), e2.getJoinedDate());
+            case DESIGNATION: return Objects.equals(e1.getDesignation(), e2.getDesignation());
+            default: return Objects.equals(e1.getDepartment(), e2.getDepartment());
+        }
+    }
+
+    /**
+     * Inserts a live row at its binary-searched position; ties go by row
+     */
+    private void insertRow(Key key, Permutation permutation, int row) {
+        int[] sorted = permutation.sorted;
+        int from = 0;
+        int to = permutation.size;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            int result = compareRows(key, sorted[mid], row);
+            if (result < 0 || (result == 0 && sorted[mid] < row)) from = mid + 1; else to = mid;
+        }
+        permutation.insertAt(from, row);
+        if (key == Key.JOINED_DATE && store.getJoinedDay(row) == JoinedDates.UNKNOWN) {
+            permutation.nullCount++;
+        }
+        permutation.ranksStale = true;
+    }
+
+    /**
+     * Removes a row, found by binary search on the key it was sorted by, which the
+     * store may no longer hold
+     * @param indexed the employee as the row was when it was sorted
+     */
+    private void removeRow(Key key, Permutation permutation, int row, Employee indexed) {
+        int[] sorted = permutation.sorted;
+        int position = -1;
+        int from = 0;
+        int to = permutation.size;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (sorted[mid] == row) {
+                position = mid;
+                break;
+            }
+            int result = compareKey(key, sorted[mid], indexed);
+            if (result < 0 || (result == 0 && sorted[mid] < row)) from = mid + 1; else to = mid;
+        }
+        if (position < 0) return;
+        if (position >= permutation.size - permutation.nullCount) {
+            permutation.nullCount--;
+        }
+        permutation.removeAt(position);
+        permutation.ranksStale = true;
+    }
+
+    /**
+     * Removes the given rows wherever they are, in one pass
+     */
+    private static void removeRows(Permutation permutation, BitSet rows) {
+        int[] sorted = permutation.sorted;
+        int keyed = permutation.size - permutation.nullCount;
+        int kept = 0;
+        for (int i = 0; i < permutation.size; i++) {
+            if (!rows.get(sorted[i])) {
+                sorted[kept++] = sorted[i];
+            } else if (i >= keyed) {
+                permutation.nullCount--;
+            }
+        }
+        permutation.size = kept;
+        permutation.ranksStale = true;
+    }
+
+    /**
+     * Recomputes the dense ranks after rows moved, in one pass over the permutation
+     */
+    private void ensureRanks(Key key, Permutation permutation) {
+        if (!permutation.ranksStale) return;
+        if (permutation.rank.length < store.getRowCount()) {
+            permutation.rank = Arrays.copyOf(permutation.rank, store.getRowCount());
+        }
+        int[] sorted = permutation.sorted;
+        int rank = -1;
+        for (int i = 0; i < permutation.size; i++) {
+            if (i == 0 || compareRows(key, sorted[i - 1], sorted[i]) != 0) rank++;
+            permutation.rank[sorted[i]] = rank;
+        }
+        permutation.maxRank = rank;
+        permutation.ranksStale = false;
+    }
+
+    // Deltas move only the affected row in the permutations built so far
+
+    @Override
+    public synchronized void onEmployeeAdded(int row, Employee employee) {
+        for (Key key : Key.values()) {
+            Permutation permutation = permutations[key.ordinal()];
+            if (permutation != null) {
+                insertRow(key, permutation, row);
+            } else {
+                noteChangeDuringBuild(key, row);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onEmployeeChanged(int row, Employee oldEmployee, Employee newEmployee) {
+        for (Key key : Key.values()) {
+            if (sameKey(key, oldEmployee, newEmployee)) continue;
+            Permutation permutation = permutations[key.ordinal()];
+            if (permutation != null) {
+                removeRow(key, permutation, row, oldEmployee);
+                insertRow(key, permutation, row);
+            } else {
+                noteChangeDuringBuild(key, row);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onEmployeeRemoved(int row, Employee employee) {
+        for (Key key : Key.values()) {
+            Permutation permutation = permutations[key.ordinal()];
+            if (permutation != null) {
+                removeRow(key, permutation, row, employee);
+            } else {
+                noteChangeDuringBuild(key, row);
+            }
+        }
+    }
+
+    private void noteChangeDuringBuild(Key key, int row) {
+        BitSet changed = changedDuringBuild[key.ordinal()];
+        if (changed != null) changed.set(row);
+    }
+
+    @Override
+    public void onStoreReset() {
+        invalidate();
+    }
+
+    /**
+     * Live rows in ascending key order, with the dense rank of each row's key.
+     * Rows without a key (missing joined date) form the last rank. The first
+     * {@code size} entries of {@code sorted} are used; deltas shift them in place.
+     */
+    private static final class Permutation {
+        int[] sorted;
+        int size;
+        int[] rank;
+        int nullCount;
+        int maxRank;
+        boolean ranksStale;
+
+        Permutation(int live, int rowCount, int nullCount) {
+            this.sorted = new int[Math.max(16, live + live / 8)];
+            this.size = live;
+            this.rank = new int[rowCount];
+            this.nullCount = nullCount;
+        }
+
+        void insertAt(int position, int row) {
+            if (size == sorted.length) {
+                sorted = Arrays.copyOf(sorted, size * 2);
+            }
+            System.arraycopy(sorted, position, sorted, position + 1, size - position);
+            sorted[position] = row;
+            size++;
+        }
+
+        void removeAt(int position) {
+            System.arraycopy(sorted, position + 1, sorted, position, size - position - 1);
+            size--;
+        }
+
+        int effectiveRank(int row, boolean descending) {
+            int r = rank[row];
+            if (!descending || (nullCount > 0 && r == maxRank)) {
+                return r;
+            }
+            // Reverse the keyed ranks and keep the keyless rank last
+            return (nullCount > 0 ? maxRank - 1 : maxRank) - r;
+        }
+
+        /**
+         * Copies the rows present in {@code rows} to {@code out} in sort order
+         * @return number of rows copied
+         */
+        int select(BitSet rows, boolean descending, int[] out) {
+            int n = 0;
+            int keyed = size - nullCount;
+            if (!descending) {
+                for (int i = 0; i < size && n < out.length; i++) {
+                    if (rows.get(sorted[i])) out[n++] = sorted[i];
+                }
+                return n;
+            }
+
+            // Walk the rank groups backwards, each group front to back
+            int end = keyed;
+            while (end > 0 && n < out.length) {
+                int start = end - 1;
+                int groupRank = rank[sorted[start]];
+                while (start > 0 && rank[sorted[start - 1]] == groupRank) start--;
+                for (int i = start; i < end && n < out.length; i++) {
+                    if (rows.get(sorted[i])) out[n++] = sorted[i];
+                }
+                end = start;
+            }
+            for (int i = keyed; i < size && n < out.length; i++) {
+                if (rows.get(sorted[i])) out[n++] = sorted[i];
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,576 @@
+package com.example.recordmaintenance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory employee store keyed by Firebase UID.
+ * Receives incremental add/change/remove deltas and forwards only the rows that
+ * actually changed to its listeners. Every employee keeps a stable row number so
+ * that structures built on top of the store can refer to rows by index.
+ *
+ * Fields are held column by column rather than as Employee objects: salary and
+ * the parsed joined date are primitive arrays, and low-cardinality text (department,
+ * designation, role, location, joined date text) is dictionary-encoded into int codes.
+ * {@link #get(int)} materializes an Employee on demand; bulk passes such as
+ * indexing and filtering read the column accessors instead. The searchable fields
+ * are also kept normalized for search, so verifying a search candidate does not
+ * lower-case its text again.
+ */
+public class EmployeeStore {
+
+    /** Dictionary code of a missing (null) value */
+    public static final int NO_VALUE = -1;
+
+    // Compact once at least this many rows are empty and they outnumber live rows
+    private static final int COMPACT_THRESHOLD = 64;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, Integer> rowsByUid = new HashMap<>();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private int rowCount; // Row slots in use, including removed ones
+    private int size; // Live employees
+    private int nextVersion;
+
+    // Dictionaries for repeated text
+    private final Dictionary departments = new Dictionary();
+    private final Dictionary designations = new Dictionary();
+    private final Dictionary sharedText = new Dictionary(); // role, location, createdBy, joined date text
+
+    // Columns; a null uid marks an empty row
+    private String[] uids;
+    private String[] empIds;
+    private String[] names;
+    private String[] emails;
+    // Normalized with EmployeeSearchIndex.normalize; null where the field is
+    private String[] searchEmpIds;
+    private String[] searchNames;
+    private String[] searchEmails;
+    private String[] photoPaths;
+    private String[] photoRefs;
+    private String[] addressLines1;
+    private String[] addressLines2;
+    private String[] createdAts;
+    private String[] updatedAts;
+    private int[] departmentCodes;
+    private int[] designationCodes;
+    private int[] roleCodes;
+    private int[] cityCodes;
+    private int[] stateCodes;
+    private int[] countryCodes;
+    private int[] createdByCodes;
+    private int[] joinedDateCodes;
+    private int[] joinedDays;
+    private double[] salaries;
+    private int[] versions;
+    private final BitSet passwordChanged = new BitSet();
+
+    public interface ChangeListener {
+        void onEmployeeAdded(int row, Employee employee);
+        void onEmployeeChanged(int row, Employee oldEmployee, Employee newEmployee);
+        void onEmployeeRemoved(int row, Employee employee);
+        void onStoreReset();
+    }
+
+    public EmployeeStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Replace the whole content, e.g. after a full reload
+     */
+    public void replaceAll(List<Employee> employees) {
+        synchronized (this) {
+            rowsByUid.clear();
+            departments.clear();
+            designations.clear();
+            sharedText.clear();
+            passwordChanged.clear();
+            allocate(Math.max(INITIAL_CAPACITY, employees.size()));
+            rowCount = 0;
+            size = 0;
+            for (Employee employee : employees) {
+                if (employee.getUid() == null || rowsByUid.containsKey(employee.getUid())) continue;
+                rowsByUid.put(employee.getUid(), rowCount);
+                write(rowCount++, employee);
+                size++;
+            }
+        }
+        notifyReset();
+    }
+
+    /**
+     * Insert or update a single employee
+     * @return true if the store changed
+     */
+    public boolean upsert(Employee employee) {
+        if (employee == null || employee.getUid() == null) return false;
+
+        int row;
+        Employee previous;
+        synchronized (this) {
+            Integer existing = rowsByUid.get(employee.getUid());
+            if (existing != null) {
+                row = existing;
+                previous = materialize(row);
+                if (previous.hasSameContent(employee)) return false;
+            } else {
+                if (rowCount == uids.length) {
+                    grow(uids.length * 2);
+                }
+                row = rowCount++;
+                previous = null;
+                rowsByUid.put(employee.getUid(), row);
+                size++;
+            }
+            write(row, employee);
+        }
+
+        for (ChangeListener listener : listeners) {
+            if (previous == null) {
+                listener.onEmployeeAdded(row, employee);
+            } else {
+                listener.onEmployeeChanged(row, previous, employee);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove an employee by UID
+     * @return true if the employee was present
+     */
+    public boolean remove(String uid) {
+        int row;
+        Employee removed;
+        boolean compact;
+        synchronized (this) {
+            Integer existing = uid != null ? rowsByUid.remove(uid) : null;
+            if (existing == null) return false;
+            row = existing;
+            removed = materialize(row);
+            clearRow(row);
+            size--;
+            int emptyRows = rowCount - size;
+            compact = emptyRows >= COMPACT_THRESHOLD && emptyRows > size;
+        }
+
+        for (ChangeListener listener : listeners) {
+            listener.onEmployeeRemoved(row, removed);
+        }
+        if (compact) {
+            synchronized (this) {
+                compact();
+            }
+            notifyReset();
+        }
+        return true;
+    }
+
+    /**
+     * Remove every employee whose UID is not in the given set
+     * @return true if anything was removed
+     */
+    public boolean retainOnly(Set<String> uids) {
+        List<String> stale = new ArrayList<>();
+        synchronized (this) {
+            for (String uid : rowsByUid.keySet()) {
+                if (!uids.contains(uid)) {
+                    stale.add(uid);
+                }
+            }
+        }
+        for (String uid : stale) {
+            remove(uid);
+        }
+        return !stale.isEmpty();
+    }
+
+    /**
+     * Materializes the employee in a row
+     * @return a new Employee, or null for an empty row
+     */
+    public synchronized Employee get(int row) {
+        return isLive(row) ? materialize(row) : null;
+    }
+
+    public synchronized Employee getByUid(String uid) {
+        Integer row = rowsByUid.get(uid);
+        return row != null ? materialize(row) : null;
+    }
+
+    public synchronized int getRow(String uid) {
+        Integer row = rowsByUid.get(uid);
+        return row != null ? row : -1;
+    }
+
+    public synchronized int getRowCount() {
+        return rowCount;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * All live employees in row order
+     */
+    public synchronized List<Employee> getAll() {
+        List<Employee> all = new ArrayList<>(size);
+        for (int i = 0; i < rowCount; i++) {
+            if (uids[i] != null) {
+                all.add(materialize(i));
+            }
+        }
+        return all;
+    }
+
+    /**
+     * profilePhotoPath of every live employee that has one
+     */
+    public synchronized List<String> getProfilePhotoPaths() {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < rowCount; i++) {
+            if (uids[i] != null && photoPaths[i] != null) {
+                paths.add(photoPaths[i]);
+            }
+        }
+        return paths;
+    }
+
+    // Column accessors; all of them expect a row below getRowCount()
+
+    public synchronized boolean isLive(int row) {
+        return row >= 0 && row < rowCount && uids[row] != null;
+    }
+
+    /**
+     * Changes whenever the row is written, including when a compaction moves it
+     */
+    public synchronized int getVersion(int row) {
+        return versions[row];
+    }
+
+    public synchronized String getUid(int row) {
+        return uids[row];
+    }
+
+    public synchronized String getEmpId(int row) {
+        return empIds[row];
+    }
+
+    public synchronized String getName(int row) {
+        return names[row];
+    }
+
+    public synchronized String getEmail(int row) {
+        return emails[row];
+    }
+
+    // Searchable fields as normalized by EmployeeSearchIndex.normalize
+
+    public synchronized String getSearchEmpId(int row) {
+        return searchEmpIds[row];
+    }
+
+    public synchronized String getSearchName(int row) {
+        return searchNames[row];
+    }
+
+    public synchronized String getSearchEmail(int row) {
+        return searchEmails[row];
+    }
+
+    public synchronized String getSearchDepartment(int row) {
+        return departments.decodeForSearch(departmentCodes[row]);
+    }
+
+    public synchronized String getSearchDesignation(int row) {
+        return designations.decodeForSearch(designationCodes[row]);
+    }
+
+    public synchronized double getSalary(int row) {
+        return salaries[row];
+    }
+
+    /**
+     * @return days since 1970-01-01, or {@link JoinedDates#UNKNOWN}
+     */
+    public synchronized int getJoinedDay(int row) {
+        return joinedDays[row];
+    }
+
+    public synchronized String getJoinedDate(int row) {
+        return sharedText.decode(joinedDateCodes[row]);
+    }
+
+    public synchronized String getCity(int row) {
+        return sharedText.decode(cityCodes[row]);
+    }
+
+    public synchronized int getDepartmentCode(int row) {
+        return departmentCodes[row];
+    }
+
+    public synchronized String getDepartment(int row) {
+        return departments.decode(departmentCodes[row]);
+    }
+
+    public synchronized int getDesignationCode(int row) {
+        return designationCodes[row];
+    }
+
+    public synchronized String getDesignation(int row) {
+        return designations.decode(designationCodes[row]);
+    }
+
+    /**
+     * @return the department's code, or a code no row carries if it is unknown
+     */
+    public synchronized int departmentCodeOf(String department) {
+        return departments.lookup(department);
+    }
+
+    /**
+     * @return the designation's code, or a code no row carries if it is unknown
+     */
+    public synchronized int designationCodeOf(String designation) {
+        return designations.lookup(designation);
+    }
+
+    // Column storage
+
+    private void allocate(int capacity) {
+        uids = new String[capacity];
+        empIds = new String[capacity];
+        names = new String[capacity];
+        emails = new String[capacity];
+        searchEmpIds = new String[capacity];
+        searchNames = new String[capacity];
+        searchEmails = new String[capacity];
+        photoPaths = new String[capacity];
+        photoRefs = new String[capacity];
+        addressLines1 = new String[capacity];
+        addressLines2 = new String[capacity];
+        createdAts = new String[capacity];
+        updatedAts = new String[capacity];
+        departmentCodes = new int[capacity];
+        designationCodes = new int[capacity];
+        roleCodes = new int[capacity];
+        cityCodes = new int[capacity];
+        stateCodes = new int[capacity];
+        countryCodes = new int[capacity];
+        createdByCodes = new int[capacity];
+        joinedDateCodes = new int[capacity];
+        joinedDays = new int[capacity];
+        salaries = new double[capacity];
+        versions = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        uids = Arrays.copyOf(uids, capacity);
+        empIds = Arrays.copyOf(empIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+        searchEmpIds = Arrays.copyOf(searchEmpIds, capacity);
+        searchNames = Arrays.copyOf(searchNames, capacity);
+        searchEmails = Arrays.copyOf(searchEmails, capacity);
+        photoPaths = Arrays.copyOf(photoPaths, capacity);
+        photoRefs = Arrays.copyOf(photoRefs, capacity);
+        addressLines1 = Arrays.copyOf(addressLines1, capacity);
+        addressLines2 = Arrays.copyOf(addressLines2, capacity);
+        createdAts = Arrays.copyOf(createdAts, capacity);
+        updatedAts = Arrays.copyOf(updatedAts, capacity);
+        departmentCodes = Arrays.copyOf(departmentCodes, capacity);
+        designationCodes = Arrays.copyOf(designationCodes, capacity);
+        roleCodes = Arrays.copyOf(roleCodes, capacity);
+        cityCodes = Arrays.copyOf(cityCodes, capacity);
+        stateCodes = Arrays.copyOf(stateCodes, capacity);
+        countryCodes = Arrays.copyOf(countryCodes, capacity);
+        createdByCodes = Arrays.copyOf(createdByCodes, capacity);
+        joinedDateCodes = Arrays.copyOf(joinedDateCodes, capacity);
+        joinedDays = Arrays.copyOf(joinedDays, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    private void write(int row, Employee employee) {
+        uids[row] = employee.getUid();
+        empIds[row] = employee.getEmpId();
+        names[row] = employee.getEmpName();
+        emails[row] = employee.getEmpEmail();
+        searchEmpIds[row] = EmployeeSearchIndex.searchText(employee.getEmpId());
+        searchNames[row] = EmployeeSearchIndex.searchText(employee.getEmpName());
+        searchEmails[row] = EmployeeSearchIndex.searchText(employee.getEmpEmail());
+        photoPaths[row] = employee.getProfilePhotoPath();
+        photoRefs[row] = employee.getProfilePhotoRef();
+        addressLines1[row] = employee.getAddressLine1();
+        addressLines2[row] = employee.getAddressLine2();
+        createdAts[row] = employee.getCreatedAt();
+        updatedAts[row] = employee.getUpdatedAt();
+        departmentCodes[row] = departments.encode(employee.getDepartment());
+        designationCodes[row] = designations.encode(employee.getDesignation());
+        roleCodes[row] = sharedText.encode(employee.getRole());
+        cityCodes[row] = sharedText.encode(employee.getCity());
+        stateCodes[row] = sharedText.encode(employee.getState());
+        countryCodes[row] = sharedText.encode(employee.getCountry());
+        createdByCodes[row] = sharedText.encode(employee.getCreatedBy());
+        joinedDateCodes[row] = sharedText.encode(employee.getJoinedDate());
+        joinedDays[row] = JoinedDates.toEpochDay(employee.getJoinedDate());
+        salaries[row] = employee.getSalary();
+        passwordChanged.set(row, employee.isPasswordChanged());
+        versions[row] = ++nextVersion;
+    }
+
+    private void clearRow(int row) {
+        uids[row] = null;
+        empIds[row] = null;
+        names[row] = null;
+        emails[row] = null;
+        searchEmpIds[row] = null;
+        searchNames[row] = null;
+        searchEmails[row] = null;
+        photoPaths[row] = null;
+        photoRefs[row] = null;
+        addressLines1[row] = null;
+        addressLines2[row] = null;
+        createdAts[row] = null;
+        updatedAts[row] = null;
+        versions[row] = ++nextVersion;
+    }
+
+    private Employee materialize(int row) {
+        Employee employee = new Employee();
+        employee.setUid(uids[row]);
+        employee.setEmpId(empIds[row]);
+        employee.setEmpName(names[row]);
+        employee.setEmpEmail(emails[row]);
+        employee.setProfilePhotoPath(photoPaths[row]);
+        employee.setProfilePhotoRef(photoRefs[row]);
+        employee.setAddressLine1(addressLines1[row]);
+        employee.setAddressLine2(addressLines2[row]);
+        employee.setCreatedAt(createdAts[row]);
+        employee.setUpdatedAt(updatedAts[row]);
+        employee.setDepartment(departments.decode(departmentCodes[row]));
+        employee.setDesignation(designations.decode(designationCodes[row]));
+        employee.setRole(sharedText.decode(roleCodes[row]));
+        employee.setCity(sharedText.decode(cityCodes[row]));
+        employee.setState(sharedText.decode(stateCodes[row]));
+        employee.setCountry(sharedText.decode(countryCodes[row]));
+        employee.setCreatedBy(sharedText.decode(createdByCodes[row]));
+        employee.setJoinedDate(sharedText.decode(joinedDateCodes[row]));
+        employee.setSalary(salaries[row]);
+        employee.setPasswordChanged(passwordChanged.get(row));
+        return employee;
+    }
+
+    /**
+     * Moves live rows down over the empty ones, keeping their order
+     */
+    private void compact() {
+        int target = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (uids[row] == null) continue;
+            if (row != target) {
+                uids[target] = uids[row];
+                empIds[target] = empIds[row];
+                names[target] = names[row];
+                emails[target] = emails[row];
+                searchEmpIds[target] = searchEmpIds[row];
+                searchNames[target] = searchNames[row];
+                searchEmails[target] = searchEmails[row];
+                photoPaths[target] = photoPaths[row];
+                photoRefs[target] = photoRefs[row];
+                addressLines1[target] = addressLines1[row];
+                addressLines2[target] = addressLines2[row];
+                createdAts[target] = createdAts[row];
+                updatedAts[target] = updatedAts[row];
+                departmentCodes[target] = departmentCodes[row];
+                designationCodes[target] = designationCodes[row];
+                roleCodes[target] = roleCodes[row];
+                cityCodes[target] = cityCodes[row];
+                stateCodes[target] = stateCodes[row];
+                countryCodes[target] = countryCodes[row];
+                createdByCodes[target] = createdByCodes[row];
+                joinedDateCodes[target] = joinedDateCodes[row];
+                joinedDays[target] = joinedDays[row];
+                salaries[target] = salaries[row];
+                passwordChanged.set(target, passwordChanged.get(row));
+                rowsByUid.put(uids[target], target);
+            }
+            versions[target] = ++nextVersion;
+            target++;
+        }
+        for (int row = target; row < rowCount; row++) {
+            clearRow(row);
+        }
+        passwordChanged.clear(target, rowCount);
+        rowCount = target;
+        if (uids.length > 2 * Math.max(INITIAL_CAPACITY, rowCount)) {
+            grow(Math.max(INITIAL_CAPACITY, rowCount * 3 / 2));
+        }
+    }
+
+    private void notifyReset() {
+        for (ChangeListener listener : listeners) {
+            listener.onStoreReset();
+        }
+    }
+
+    /**
+     * Assigns dense int codes to distinct strings
+     */
+    private static final class Dictionary {
+        private static final int UNKNOWN_CODE = -2; // Lookup result for strings never encoded
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<String> searchValues = new ArrayList<>(); // Normalized once per code
+
+        int encode(String value) {
+            if (value == null) return NO_VALUE;
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                searchValues.add(EmployeeSearchIndex.searchText(value));
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        int lookup(String value) {
+            if (value == null) return NO_VALUE;
+            Integer code = codes.get(value);
+            return code != null ? code : UNKNOWN_CODE;
+        }
+
+        String decode(int code) {
+            return code >= 0 ? values.get(code) : null;
+        }
+
+        String decodeForSearch(int code) {
+            return code >= 0 ? searchValues.get(code) : null;
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+            searchValues.clear();
+        }
+    }
+}
@@ -17,8 +17,11 @@ import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.slider.RangeSlider;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class FilterSortDialogFragment extends DialogFragment {
 
@@ -27,6 +30,11 @@ public class FilterSortDialogFragment extends DialogFragment {
     private RangeSlider salaryRangeSlider;
     private ChipGroup chipGroupQuickFilters;
     private MaterialButton btnApplyFilter, btnClearAll;
+    private Chip chipNewJoiners;
+    private String selectedDepartment = "";
+    private String selectedDesignation = "";
+    private final Map<String, String> departmentsByLabel = new HashMap<>();
+    private final Map<String, String> designationsByLabel = new HashMap<>();
 
     private FilterSortListener listener;
     private EmployeeAdapter.FilterCriteria currentCriteria;
@@ -34,10 +42,14 @@ public class FilterSortDialogFragment extends DialogFragment {
     public interface FilterSortListener {
         void onFilterApplied(EmployeeAdapter.FilterCriteria criteria, EmployeeAdapter.SortCriteria sortCriteria);
         void onClearAllFilters();
-        List<String> getDepartmentList();
-        List<String> getDesignationList();
+        List<EmployeeFacets.Facet> getDepartmentFacets();
+        List<EmployeeFacets.Facet> getDesignationFacets();
+        double[] getSalaryBounds(); // {min, max}, or null if there are no employees
     }
 
+    private static final float SALARY_STEP = 5000f;
+    private static final float DEFAULT_MAX_SALARY = 200000f;
+
     public static FilterSortDialogFragment newInstance(EmployeeAdapter.FilterCriteria currentCriteria) {
         FilterSortDialogFragment fragment = new FilterSortDialogFragment();
         fragment.currentCriteria = currentCriteria != null ? currentCriteria : new EmployeeAdapter.FilterCriteria();
@@ -78,19 +90,21 @@ public class FilterSortDialogFragment extends DialogFragment {
     }
 
     private void setupDropdowns() {
-        // Department dropdown
+        // Department and designation dropdowns show "Engineering (412)"-style counts
         if (listener != null) {
-            List<String> departments = listener.getDepartmentList();
-            departments.add(0, "All Departments");
+            List<String> departments = facetLabels(listener.getDepartmentFacets(), "All Departments", departmentsByLabel);
             ArrayAdapter<String> deptAdapter = new ArrayAdapter<>(getContext(),
                     android.R.layout.simple_dropdown_item_1line, departments);
             spinnerDepartment.setAdapter(deptAdapter);
+            spinnerDepartment.setOnItemClickListener((parent, view, position, id) ->
+                    selectedDepartment = departmentsByLabel.get((String) parent.getItemAtPosition(position)));
 
-            List<String> designations = listener.getDesignationList();
-            designations.add(0, "All Designations");
+            List<String> designations = facetLabels(listener.getDesignationFacets(), "All Designations", designationsByLabel);
             ArrayAdapter<String> desigAdapter = new ArrayAdapter<>(getContext(),
                     android.R.layout.simple_dropdown_item_1line, designations);
             spinnerDesignation.setAdapter(desigAdapter);
+            spinnerDesignation.setOnItemClickListener((parent, view, position, id) ->
+                    selectedDesignation = designationsByLabel.get((String) parent.getItemAtPosition(position)));
         }
 
         // Sort options
@@ -106,11 +120,54 @@ public class FilterSortDialogFragment extends DialogFragment {
         spinnerSortBy.setAdapter(sortAdapter);
     }
 
+    /**
+     * Dropdown labels for the facets, recording the filter value behind each label
+     */
+    private static List<String> facetLabels(List<EmployeeFacets.Facet> facets, String allLabel,
+                                            Map<String, String> valuesByLabel) {
+        List<String> labels = new ArrayList<>(facets.size() + 1);
+        labels.add(allLabel);
+        valuesByLabel.put(allLabel, "");
+        for (EmployeeFacets.Facet facet : facets) {
+            String label = facet.toString();
+            labels.add(label);
+            valuesByLabel.put(label, facet.value);
+        }
+        return labels;
+    }
+
+    private static String labelOf(String value, Map<String, String> valuesByLabel) {
+        for (Map.Entry<String, String> entry : valuesByLabel.entrySet()) {
+            if (entry.getValue().equals(value)) {
+                return entry.getKey();
+            }
+        }
+        return value;
+    }
+
     private void setupSlider() {
-        salaryRangeSlider.setValueFrom(0f);
-        salaryRangeSlider.setValueTo(200000f);
-        salaryRangeSlider.setStepSize(5000f);
-        salaryRangeSlider.setValues(0f, 200000f);
+        // Bounds follow the roster's salaries, widened to whole steps
+        float from = 0f;
+        float to = DEFAULT_MAX_SALARY;
+        double[] bounds = listener != null ? listener.getSalaryBounds() : null;
+        if (bounds != null) {
+            from = (float) (Math.floor(Math.max(0, bounds[0]) / SALARY_STEP) * SALARY_STEP);
+            to = Math.max(from + SALARY_STEP, (float) (Math.ceil(bounds[1] / SALARY_STEP) * SALARY_STEP));
+        }
+        salaryRangeSlider.setValueFrom(from);
+        salaryRangeSlider.setValueTo(to);
+        salaryRangeSlider.setStepSize(SALARY_STEP);
+        salaryRangeSlider.setValues(from, to);
+    }
+
+    /**
+     * Clamps a salary to the slider and rounds it to a step, as the slider requires
+     */
+    private float toSliderValue(double salary) {
+        float from = salaryRangeSlider.getValueFrom();
+        float to = salaryRangeSlider.getValueTo();
+        double clamped = Math.min(to, Math.max(from, salary));
+        return from + Math.round((clamped - from) / SALARY_STEP) * SALARY_STEP;
     }
 
     private void setupQuickFilters() {
@@ -124,6 +181,9 @@ public class FilterSortDialogFragment extends DialogFragment {
             chip.setText(filter);
             chip.setCheckable(true);
             chipGroupQuickFilters.addView(chip);
+            if (filter.startsWith("New Joiners")) {
+                chipNewJoiners = chip;
+            }
         }
     }
 
@@ -135,13 +195,20 @@ public class FilterSortDialogFragment extends DialogFragment {
     private void loadCurrentCriteria() {
         if (currentCriteria != null) {
             etSearchQuery.setText(currentCriteria.searchQuery);
-            spinnerDepartment.setText(currentCriteria.departmentFilter);
-            spinnerDesignation.setText(currentCriteria.designationFilter);
+            selectedDepartment = currentCriteria.departmentFilter;
+            selectedDesignation = currentCriteria.designationFilter;
+            if (!selectedDepartment.isEmpty()) {
+                spinnerDepartment.setText(labelOf(selectedDepartment, departmentsByLabel), false);
+            }
+            if (!selectedDesignation.isEmpty()) {
+                spinnerDesignation.setText(labelOf(selectedDesignation, designationsByLabel), false);
+            }
+            chipNewJoiners.setChecked("last_3_months".equals(currentCriteria.dateRange));
 
             if (currentCriteria.minSalary > 0 || currentCriteria.maxSalary < Double.MAX_VALUE) {
                 salaryRangeSlider.setValues(
-                        (float) currentCriteria.minSalary,
-                        currentCriteria.maxSalary == Double.MAX_VALUE ? 200000f : (float) currentCriteria.maxSalary
+                        toSliderValue(currentCriteria.minSalary),
+                        toSliderValue(currentCriteria.maxSalary)
                 );
             }
         }
@@ -153,23 +220,20 @@ public class FilterSortDialogFragment extends DialogFragment {
         // Search query
         criteria.searchQuery = etSearchQuery.getText().toString().trim();
 
-        // Department filter
-        String selectedDept = spinnerDepartment.getText().toString();
-        if (!selectedDept.equals("All Departments") && !selectedDept.isEmpty()) {
-            criteria.departmentFilter = selectedDept;
-        }
-
-        // Designation filter
-        String selectedDesig = spinnerDesignation.getText().toString();
-        if (!selectedDesig.equals("All Designations") && !selectedDesig.isEmpty()) {
-            criteria.designationFilter = selectedDesig;
-        }
+        // Department and designation filters
+        criteria.departmentFilter = selectedDepartment;
+        criteria.designationFilter = selectedDesignation;
 
         // Salary range
         List<Float> salaryValues = salaryRangeSlider.getValues();
         criteria.minSalary = salaryValues.get(0);
         criteria.maxSalary = salaryValues.get(1);
 
+        // Joined date range
+        if (chipNewJoiners.isChecked()) {
+            criteria.dateRange = "last_3_months";
+        }
+
         // Sort criteria
         EmployeeAdapter.SortCriteria sortCriteria = getSortCriteriaFromSelection();
 
@@ -39,7 +39,7 @@ public class ForgotPasswordActivity extends AppCompatActivity {
             getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         }
 
-        authRepository = new AuthRepository(this);
+        authRepository = Repositories.auth(this);
 
         btnSendReset.setOnClickListener(v -> attemptPasswordReset());
     }
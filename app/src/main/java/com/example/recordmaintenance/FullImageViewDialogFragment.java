@@ -1,11 +1,14 @@
 package com.example.recordmaintenance;
 
 import android.app.Dialog;
+import android.graphics.Bitmap;
 import android.os.Bundle;
+import android.util.DisplayMetrics;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.WindowManager;
+import android.widget.FrameLayout;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -16,20 +19,30 @@ import com.squareup.picasso.Picasso;
 
 import java.io.File;
 
+
 /**
  * Enhanced full image viewer with zoomable PhotoView
  * Supports pinch-to-zoom, double-tap zoom, and pan gestures
+ * Photos much larger than the screen are shown tiled, see {@link TiledImageOverlay}
  */
 public class FullImageViewDialogFragment extends DialogFragment {
 
     private static final String ARG_IMAGE_PATH = "image_path";
+    private static final String ARG_IMAGE_REF = "image_ref";
     private String imagePath;
+    private String imageRef;
     private PhotoView photoView;
+    private TiledImageOverlay tileOverlay;
 
-    public static FullImageViewDialogFragment newInstance(String imagePath) {
+    /**
+     * @param imagePath the photo on this device, if it was saved here
+     * @param imageRef the photo's Storage path, used when it is not on this device
+     */
+    public static FullImageViewDialogFragment newInstance(String imagePath, String imageRef) {
         FullImageViewDialogFragment fragment = new FullImageViewDialogFragment();
         Bundle args = new Bundle();
         args.putString(ARG_IMAGE_PATH, imagePath);
+        args.putString(ARG_IMAGE_REF, imageRef);
         fragment.setArguments(args);
         return fragment;
     }
@@ -39,6 +52,7 @@ public class FullImageViewDialogFragment extends DialogFragment {
         super.onCreate(savedInstanceState);
         if (getArguments() != null) {
             imagePath = getArguments().getString(ARG_IMAGE_PATH);
+            imageRef = getArguments().getString(ARG_IMAGE_REF);
         }
 
         // Make dialog fullscreen for better image viewing
@@ -68,7 +82,13 @@ public class FullImageViewDialogFragment extends DialogFragment {
         // Add click listener to close dialog
         photoView.setOnClickListener(v -> dismiss());
 
-        return photoView;
+        // Tiles are drawn over the photo; touches pass through to the PhotoView
+        tileOverlay = new TiledImageOverlay(requireContext());
+        photoView.setOnMatrixChangeListener(tileOverlay);
+        FrameLayout root = new FrameLayout(requireContext());
+        root.addView(photoView);
+        root.addView(tileOverlay);
+        return root;
     }
 
     @NonNull
@@ -88,40 +108,72 @@ public class FullImageViewDialogFragment extends DialogFragment {
     }
 
     private void loadImageIntoPhotoView() {
-        if (imagePath != null && !imagePath.isEmpty()) {
-            File imageFile = new File(imagePath);
-            if (imageFile.exists()) {
-                // Load image with Picasso for reliable loading
-                Picasso.get()
-                        .load(imageFile)
-                        .fit() // Fit to PhotoView bounds
-                        .centerInside() // Center and scale to fit
-                        .placeholder(R.drawable.ic_person_placeholder)
-                        .error(R.drawable.ic_person_placeholder)
-                        .into(photoView, new com.squareup.picasso.Callback() {
-                            @Override
-                            public void onSuccess() {
-                                // Image loaded successfully, PhotoView handles zooming
-                                photoView.setScale(1.0f, true); // Reset to fit scale
-                            }
-
-                            @Override
-                            public void onError(Exception e) {
-                                // Handle error - PhotoView will show placeholder/error image
-                                if (getContext() != null) {
-                                    android.widget.Toast.makeText(getContext(),
-                                            "Failed to load image",
-                                            android.widget.Toast.LENGTH_SHORT).show();
-                                }
-                            }
-                        });
-            } else {
-                // File doesn't exist, show placeholder
-                photoView.setImageResource(R.drawable.ic_person_placeholder);
-            }
-        } else {
+        boolean hasImage = (imagePath != null && !imagePath.isEmpty()) || imageRef != null;
+        if (!hasImage) {
             // No image path provided, show placeholder
             photoView.setImageResource(R.drawable.ic_person_placeholder);
+            return;
+        }
+
+        photoView.setImageResource(R.drawable.ic_person_placeholder);
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        // From this device, or through the photo cache, which fetches it once
+        PhotoCache.get(requireContext()).loadFile(imagePath, imageRef,
+                metrics.widthPixels, metrics.heightPixels, imageFile -> {
+                    if (photoView == null || !isAdded()) return;
+                    if (imageFile == null) {
+                        // Not on this device and could not be fetched, keep the placeholder
+                        showLoadError();
+                        return;
+                    }
+                    tileOverlay.open(imageFile.getPath(), metrics.widthPixels, metrics.heightPixels, base -> {
+                        if (photoView == null || !isAdded()) return;
+                        if (base != null) {
+                            showTiled(base);
+                        } else {
+                            loadWithPicasso(imageFile);
+                        }
+                    });
+                });
+    }
+
+    private void showTiled(Bitmap base) {
+        photoView.setImageBitmap(base);
+        // Allow zooming in until the photo is shown pixel for pixel
+        float fullResolution = tileOverlay.getFullResolutionScale(photoView.getWidth(), photoView.getHeight());
+        if (fullResolution > photoView.getMaximumScale()) {
+            photoView.setMaximumScale(fullResolution);
+        }
+    }
+
+    private void loadWithPicasso(File imageFile) {
+        // Load image with Picasso for reliable loading
+        Picasso.get()
+                .load(imageFile)
+                .fit() // Fit to PhotoView bounds
+                .centerInside() // Center and scale to fit
+                .placeholder(R.drawable.ic_person_placeholder)
+                .error(R.drawable.ic_person_placeholder)
+                .into(photoView, new com.squareup.picasso.Callback() {
+                    @Override
+                    public void onSuccess() {
+                        // Image loaded successfully, PhotoView handles zooming
+                        photoView.setScale(1.0f, true); // Reset to fit scale
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        // Handle error - PhotoView will show placeholder/error image
+                        showLoadError();
+                    }
+                });
+    }
+
+    private void showLoadError() {
+        if (getContext() != null) {
+            android.widget.Toast.makeText(getContext(),
+                    "Failed to load image",
+                    android.widget.Toast.LENGTH_SHORT).show();
         }
     }
 
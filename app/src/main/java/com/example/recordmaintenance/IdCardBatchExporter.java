@@ -0,0 +1,276 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports the ID cards of many employees at once, as a PDF with several cards on
+ * each A4 page or as a ZIP of PNG images. A few renderers work in parallel, each
+ * rendering and encoding whole cards; the cards are written in list order as they
+ * finish, and no more than a few are in flight at a time, so memory stays the same
+ * however many employees are exported.
+ */
+final class IdCardBatchExporter {
+
+    private static final String TAG = "IdCardBatchExporter";
+    private static final int RENDERERS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final int MAX_CARDS_IN_FLIGHT = RENDERERS * 2;
+
+    // A4 page with cards at their printed size (85.6 x 54 mm), in points
+    private static final float PAGE_WIDTH = 595f;
+    private static final float PAGE_HEIGHT = 842f;
+    private static final float CARD_WIDTH = 85.6f * 72 / 25.4f;
+    private static final float CARD_HEIGHT = 54f * 72 / 25.4f;
+    private static final float CARD_GAP = 24f;
+    private static final int COLUMNS = 2;
+    private static final int ROWS = 4;
+    static final int CARDS_PER_PAGE = COLUMNS * ROWS;
+
+    // One batch at a time
+    private static final ExecutorService BATCH_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    enum Output {
+        PDF("application/pdf", ".pdf"),
+        ZIP("application/zip", ".zip");
+
+        final String mimeType;
+        final String extension;
+
+        Output(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Callbacks run on the main thread
+     */
+    public interface Callback {
+        void onProgress(int exported, int total);
+
+        /**
+         * @param skipped cards that could not be rendered, left out of the export
+         */
+        void onExported(int count, int skipped);
+
+        void onError(String message);
+    }
+
+    private final Context context;
+    private final List<Employee> employees;
+    private final Output output;
+    private volatile boolean cancelled;
+
+    IdCardBatchExporter(Context context, List<Employee> employees, Output output) {
+        this.context = context.getApplicationContext();
+        this.employees = employees;
+        this.output = output;
+    }
+
+    /**
+     * Stops the export after the card being written; the callback gets an error
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    void export(IdCardRenderer.OutputOpener opener, Callback callback) {
+        BATCH_EXECUTOR.execute(() -> {
+            long start = SystemClock.elapsedRealtime();
+            int total = employees.size();
+            ExecutorService renderPool = Executors.newFixedThreadPool(RENDERERS);
+            // Paints are not shared between threads, so each one gets its own renderer
+            ThreadLocal<IdCardRenderer> renderers = new ThreadLocal<IdCardRenderer>() {
+                @Override
+                protected IdCardRenderer initialValue() {
+                    return new IdCardRenderer(context);
+                }
+            };
+            try (OutputStream out = opener.open()) {
+                if (out == null) throw new IOException("Cannot open file for writing");
+                CardSink sink = output == Output.PDF ? new PdfSink(out) : new ZipSink(out);
+                ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+                int submitted = 0;
+                int skipped = 0;
+                for (int written = 0; written < total; written++) {
+                    while (submitted < total && inFlight.size() < MAX_CARDS_IN_FLIGHT) {
+                        Employee employee = employees.get(submitted++);
+                        inFlight.add(renderPool.submit(() -> encode(renderers.get(), employee)));
+                    }
+                    if (cancelled) throw new CancellationException();
+                    byte[] card = inFlight.poll().get();
+                    if (card != null) {
+                        sink.write(employees.get(written), card);
+                    } else {
+                        skipped++;
+                    }
+                    int exported = written + 1;
+                    MAIN_HANDLER.post(() -> callback.onProgress(exported, total));
+                }
+                sink.finish();
+                int count = total - skipped;
+                int skippedCards = skipped;
+                Log.d(TAG, "Exported " + count + " ID cards as " + output + " in "
+                        + (SystemClock.elapsedRealtime() - start) + " ms with " + RENDERERS + " renderers, "
+                        + skippedCards + " skipped");
+                MAIN_HANDLER.post(() -> callback.onExported(count, skippedCards));
+            } catch (CancellationException e) {
+                MAIN_HANDLER.post(() -> callback.onError("Cancelled"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                MAIN_HANDLER.post(() -> callback.onError("Interrupted"));
+            } catch (IOException | ExecutionException | RuntimeException e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                Log.w(TAG, "ID card export failed", cause);
+                String message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+                MAIN_HANDLER.post(() -> callback.onError(message));
+            } finally {
+                renderPool.shutdownNow();
+            }
+        });
+    }
+
+    /**
+     * Renders a card and encodes it for the output, on a renderer thread
+     * @return the encoded card, or null if this employee's card could not be made;
+     * one bad record does not cost the rest of the batch
+     */
+    private byte[] encode(IdCardRenderer renderer, Employee employee) {
+        Bitmap card = null;
+        try {
+            card = renderer.render(employee);
+            return output == Output.PDF ? deflatedRgb(card) : png(card);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Skipped the ID card of " + employee.getUid(), e);
+            return null;
+        } finally {
+            if (card != null) card.recycle();
+        }
+    }
+
+    private static byte[] png(Bitmap card) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (!card.compress(Bitmap.CompressFormat.PNG, 100, bytes)) {
+            throw new IOException("Could not encode the card");
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflatedRgb(Bitmap card) throws IOException {
+        int width = card.getWidth();
+        int[] row = new int[width];
+        byte[] rgb = new byte[width * 3];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            for (int y = 0; y < card.getHeight(); y++) {
+                card.getPixels(row, 0, width, 0, y, width, 1);
+                for (int x = 0, i = 0; x < width; x++) {
+                    int pixel = row[x];
+                    rgb[i++] = (byte) (pixel >> 16);
+                    rgb[i++] = (byte) (pixel >> 8);
+                    rgb[i++] = (byte) pixel;
+                }
+                out.write(rgb);
+            }
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private interface CardSink {
+        void write(Employee employee, byte[] card) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class PdfSink implements CardSink {
+        private final PdfImageWriter writer;
+        private final float marginX = (PAGE_WIDTH - COLUMNS * CARD_WIDTH - (COLUMNS - 1) * CARD_GAP) / 2;
+        private final float marginY = (PAGE_HEIGHT - ROWS * CARD_HEIGHT - (ROWS - 1) * CARD_GAP) / 2;
+        private int slot;
+
+        PdfSink(OutputStream out) throws IOException {
+            writer = new PdfImageWriter(out, PAGE_WIDTH, PAGE_HEIGHT);
+        }
+
+        @Override
+        public void write(Employee employee, byte[] card) throws IOException {
+            int column = slot % COLUMNS;
+            int row = slot / COLUMNS;
+            writer.addImage(IdCardRenderer.WIDTH, IdCardRenderer.HEIGHT, card,
+                    marginX + column * (CARD_WIDTH + CARD_GAP), marginY + row * (CARD_HEIGHT + CARD_GAP),
+                    CARD_WIDTH, CARD_HEIGHT);
+            if (++slot == CARDS_PER_PAGE) {
+                // The page goes out now rather than with the document
+                writer.finishPage();
+                slot = 0;
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.finish();
+        }
+    }
+
+    private static final class ZipSink implements CardSink {
+        private final ZipOutputStream zip;
+        private final Set<String> names = new HashSet<>();
+
+        ZipSink(OutputStream out) {
+            zip = new ZipOutputStream(out);
+        }
+
+        @Override
+        public void write(Employee employee, byte[] card) throws IOException {
+            // Entry names are paths when extracted, so IDs are reduced to safe characters
+            String id = employee.getEmpId() != null ? employee.getEmpId() : employee.getUid();
+            String base = "ID_Card_" + String.valueOf(id).replaceAll("[^A-Za-z0-9._-]", "_");
+            String name = base + ".png";
+            for (int i = 2; !names.add(name); i++) {
+                name = base + "_" + i + ".png";
+            }
+            // PNG is already compressed, so it is stored as it is
+            ZipEntry entry = new ZipEntry(name);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(card.length);
+            CRC32 crc = new CRC32();
+            crc.update(card);
+            entry.setCrc(crc.getValue());
+            zip.putNextEntry(entry);
+            zip.write(card);
+            zip.closeEntry();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            zip.finish();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.recordmaintenance;
+
+import android.app.Application;
+import android.net.Uri;
+import android.provider.DocumentsContract;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.AndroidViewModel;
+
+import java.util.List;
+
+/**
+ * Holds a batch ID card export for MainActivity, so rotating the screen or any other
+ * configuration change leaves it running; the recreated activity reattaches and
+ * picks up the progress. The export is cancelled only when the activity is finished
+ * for good, and a cancelled or failed export deletes its partial document.
+ */
+public class IdCardExportViewModel extends AndroidViewModel {
+
+    private static final String TAG = "IdCardExportViewModel";
+
+    /**
+     * Called on the main thread while attached
+     */
+    public interface Listener {
+        void onProgress(int exported, int total);
+
+        /**
+         * @param skipped cards left out because they could not be rendered
+         * @param error why the export stopped, or null if it ran to the end
+         */
+        void onFinished(int count, int skipped, @Nullable String error);
+    }
+
+    private IdCardBatchExporter exporter;
+    private Listener listener;
+    private int exported;
+    private int total;
+    // A result that arrived while no activity was attached
+    private boolean resultPending;
+    private int resultCount;
+    private int resultSkipped;
+    private String resultError;
+
+    public IdCardExportViewModel(@NonNull Application application) {
+        super(application);
+    }
+
+    boolean isRunning() {
+        return exporter != null;
+    }
+
+    int getTotal() {
+        return total;
+    }
+
+    void start(Uri uri, List<Employee> employees, IdCardBatchExporter.Output output) {
+        exported = 0;
+        total = employees.size();
+        exporter = new IdCardBatchExporter(getApplication(), employees, output);
+        exporter.export(() -> getApplication().getContentResolver().openOutputStream(uri, "w"),
+                new IdCardBatchExporter.Callback() {
+                    @Override
+                    public void onProgress(int exportedCards, int totalCards) {
+                        exported = exportedCards;
+                        if (listener != null) listener.onProgress(exportedCards, totalCards);
+                    }
+
+                    @Override
+                    public void onExported(int count, int skipped) {
+                        finish(count, skipped, null);
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        // A partial file is of no use
+                        try {
+                            DocumentsContract.deleteDocument(getApplication().getContentResolver(), uri);
+                        } catch (Exception e) {
+                            Log.w(TAG, "Could not delete partial ID card export", e);
+                        }
+                        finish(exported, 0, message);
+                    }
+                });
+    }
+
+    void cancel() {
+        if (exporter != null) exporter.cancel();
+    }
+
+    /**
+     * Attaches an activity, bringing it up to date; pass null when it is destroyed
+     */
+    void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+        if (listener == null) return;
+        if (exporter != null) {
+            listener.onProgress(exported, total);
+        } else if (resultPending) {
+            resultPending = false;
+            listener.onFinished(resultCount, resultSkipped, resultError);
+        }
+    }
+
+    private void finish(int count, int skipped, @Nullable String error) {
+        exporter = null;
+        if (listener != null) {
+            listener.onFinished(count, skipped, error);
+        } else {
+            resultPending = true;
+            resultCount = count;
+            resultSkipped = skipped;
+            resultError = error;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        listener = null;
+        cancel();
+    }
+}
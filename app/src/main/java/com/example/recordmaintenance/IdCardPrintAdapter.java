@@ -6,6 +6,7 @@ import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.graphics.pdf.PdfDocument;
 import android.os.Bundle;
@@ -16,6 +17,7 @@ import android.print.PrintAttributes;
 import android.print.PrintDocumentAdapter;
 import android.print.PrintDocumentInfo;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
@@ -120,18 +122,22 @@ public class IdCardPrintAdapter extends PrintDocumentAdapter {
         canvas.drawCircle(x + 80, y + 120, 40, photoPaint);
 
         // Try to load and draw actual photo
-        String photoPath = employee.getProfilePhotoPath();
-        if (photoPath != null && ImageUtils.isPhotoExists(photoPath)) {
+        // Printing runs on the main thread, so only a copy already on the device is used
+        File photoFile = PhotoCache.get(context).getCachedFile(
+                employee.getProfilePhotoPath(), employee.getProfilePhotoRef(), 80, 80);
+        if (photoFile != null) {
             try {
-                Bitmap photoBitmap = ImageUtils.loadBitmapFromPath(photoPath);
+                Bitmap photoBitmap = ImageUtils.decodeSampledBitmap(photoFile.getPath(), 80, 80,
+                        Bitmap.Config.ARGB_8888);
                 if (photoBitmap != null) {
-                    // Create circular photo
-                    Bitmap scaledPhoto = Bitmap.createScaledBitmap(photoBitmap, 80, 80, true);
-                    // Draw photo in circle (simplified approach)
+                    // Scaled while drawing, so no intermediate bitmap is allocated
+                    Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
                     canvas.save();
                     canvas.clipRect(x + 40, y + 80, x + 120, y + 160);
-                    canvas.drawBitmap(scaledPhoto, x + 40, y + 80, null);
+                    canvas.drawBitmap(photoBitmap, ImageUtils.centerSquare(photoBitmap),
+                            new RectF(x + 40, y + 80, x + 120, y + 160), bitmapPaint);
                     canvas.restore();
+                    ImageUtils.releaseBitmap(photoBitmap);
                 }
             } catch (Exception e) {
                 // Use placeholder if photo loading fails
@@ -0,0 +1,235 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Renders employees' ID cards as images, off the main thread. The parts that are
+ * the same on every card are drawn once into a shared template; each card starts
+ * as a copy of it, with only the photo and the employee's details drawn on top.
+ * A renderer keeps its own paints, so renderers may run in parallel.
+ */
+final class IdCardRenderer {
+
+    private static final String TAG = "IdCardRenderer";
+    static final int WIDTH = 800;
+    static final int HEIGHT = 500;
+    private static final int PHOTO_SIZE = 120;
+    private static final Rect PHOTO_RECT = new Rect(60, 140, 60 + PHOTO_SIZE, 140 + PHOTO_SIZE);
+
+    // Single card exports, one at a time
+    private static final ExecutorService EXPORT_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static Bitmap template;
+
+    enum Format {
+        PNG("image/png", ".png"),
+        WEBP_LOSSLESS("image/webp", ".webp");
+
+        final String mimeType;
+        final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+
+        /**
+         * @return the format written as the given MIME type, or null if there is none
+         */
+        @Nullable
+        static Format forMimeType(@Nullable String mimeType) {
+            for (Format format : values()) {
+                if (format.mimeType.equals(mimeType)) return format;
+            }
+            return null;
+        }
+
+        /**
+         * Bitmaps are only encoded to lossless WebP from Android 10
+         */
+        boolean isSupported() {
+            return this != WEBP_LOSSLESS || Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q;
+        }
+
+        @SuppressWarnings("deprecation")
+        boolean compress(Bitmap card, OutputStream out) {
+            if (this == PNG) {
+                return card.compress(Bitmap.CompressFormat.PNG, 100, out);
+            }
+            // Lossless at quality 100 before WEBP_LOSSLESS existed
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                    ? card.compress(Bitmap.CompressFormat.WEBP_LOSSLESS, 100, out)
+                    : card.compress(Bitmap.CompressFormat.WEBP, 100, out);
+        }
+    }
+
+    public interface OutputOpener {
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * Callbacks run on the main thread
+     */
+    public interface ExportCallback {
+        void onProgress(int percent);
+
+        void onExported();
+
+        void onError(String message);
+    }
+
+    private final PhotoCache photoCache;
+    private final Paint photoPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint namePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint detailsPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint footerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    IdCardRenderer(Context context) {
+        photoCache = PhotoCache.get(context);
+        namePaint.setColor(Color.WHITE);
+        namePaint.setTextSize(32);
+        namePaint.setTypeface(Typeface.DEFAULT_BOLD);
+        detailsPaint.setColor(Color.parseColor("#E0FFFFFF"));
+        detailsPaint.setTextSize(24);
+        footerPaint.setColor(Color.parseColor("#B0FFFFFF"));
+        footerPaint.setTextSize(18);
+    }
+
+    /**
+     * Renders an employee's card, fetching the photo if it is not on the device.
+     * The caller owns the returned bitmap.
+     */
+    @WorkerThread
+    Bitmap render(Employee employee) {
+        Bitmap card = template().copy(Bitmap.Config.ARGB_8888, true);
+        drawPhoto(new Canvas(card), employee);
+        drawDetails(new Canvas(card), employee);
+        return card;
+    }
+
+    /**
+     * Renders an employee's card and writes it in the given format, reporting progress
+     */
+    void export(Employee employee, Format format, OutputOpener opener, ExportCallback callback) {
+        EXPORT_EXECUTOR.execute(() -> {
+            long start = SystemClock.elapsedRealtime();
+            Bitmap card = null;
+            try {
+                progress(callback, 10);
+                card = template().copy(Bitmap.Config.ARGB_8888, true);
+                Canvas canvas = new Canvas(card);
+                drawPhoto(canvas, employee);
+                progress(callback, 40);
+                drawDetails(canvas, employee);
+                progress(callback, 50);
+                try (OutputStream out = opener.open()) {
+                    if (out == null || !format.compress(card, out)) {
+                        throw new IOException("Could not write the card");
+                    }
+                }
+                Log.d(TAG, "Exported " + employee.getEmpId() + " as " + format + " in "
+                        + (SystemClock.elapsedRealtime() - start) + " ms");
+                MAIN_HANDLER.post(callback::onExported);
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Could not export ID card of " + employee.getEmpId(), e);
+                String message = e.getMessage() != null ? e.getMessage() : e.toString();
+                MAIN_HANDLER.post(() -> callback.onError(message));
+            } finally {
+                if (card != null) card.recycle();
+            }
+        });
+    }
+
+    private static void progress(ExportCallback callback, int percent) {
+        MAIN_HANDLER.post(() -> callback.onProgress(percent));
+    }
+
+    private void drawPhoto(Canvas canvas, Employee employee) {
+        File photoFile = photoCache.getFile(employee.getProfilePhotoPath(), employee.getProfilePhotoRef(),
+                PHOTO_SIZE, PHOTO_SIZE);
+        if (photoFile == null) return; // The template's placeholder circle stays
+        Bitmap photo = ImageUtils.decodeSampledBitmap(photoFile.getPath(), PHOTO_SIZE, PHOTO_SIZE,
+                Bitmap.Config.ARGB_8888);
+        if (photo == null) return;
+        // Scale while drawing the photo
+        canvas.drawBitmap(photo, ImageUtils.centerSquare(photo), PHOTO_RECT, photoPaint);
+        ImageUtils.releaseBitmap(photo);
+    }
+
+    private void drawDetails(Canvas canvas, Employee employee) {
+        canvas.drawText(employee.getEmpName() != null ? employee.getEmpName() : "N/A", 220, 160, namePaint);
+        canvas.drawText(employee.getEmpId() != null ? employee.getEmpId() : "N/A", 220, 190, detailsPaint);
+        canvas.drawText(employee.getDesignation() != null ?
+                employee.getDesignation() : "Employee", 220, 220, detailsPaint);
+        canvas.drawText((employee.getDepartment() != null ?
+                employee.getDepartment() : "General") + " Department", 220, 250, detailsPaint);
+
+        String joinYear = "2023";
+        if (employee.getJoinedDate() != null && employee.getJoinedDate().length() >= 4) {
+            joinYear = employee.getJoinedDate().substring(0, 4);
+        }
+        canvas.drawText("Since " + joinYear, WIDTH - 150, HEIGHT - 40, footerPaint);
+    }
+
+    /**
+     * Everything every card has, drawn the first time a card is rendered
+     */
+    private static synchronized Bitmap template() {
+        if (template != null) return template;
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        Paint backgroundPaint = new Paint();
+        backgroundPaint.setColor(Color.parseColor("#2196F3")); // Material Blue
+        canvas.drawRect(0, 0, WIDTH, HEIGHT, backgroundPaint);
+
+        Paint headerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        headerPaint.setColor(Color.WHITE);
+        headerPaint.setTextSize(40);
+        headerPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        canvas.drawText("MatraSoftech", 40, 60, headerPaint);
+
+        Paint idBadgePaint = new Paint();
+        idBadgePaint.setColor(Color.parseColor("#40FFFFFF"));
+        canvas.drawRect(WIDTH - 200, 20, WIDTH - 40, 70, idBadgePaint);
+
+        Paint idTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        idTextPaint.setColor(Color.WHITE);
+        idTextPaint.setTextSize(24);
+        canvas.drawText("ID CARD", WIDTH - 180, 50, idTextPaint);
+
+        // Placeholder for employees without a photo
+        Paint photoPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        photoPaint.setColor(Color.WHITE);
+        canvas.drawCircle(120, 200, 60, photoPaint);
+
+        Paint footerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        footerPaint.setColor(Color.parseColor("#B0FFFFFF"));
+        footerPaint.setTextSize(18);
+        canvas.drawText("Valid until further notice", 40, HEIGHT - 40, footerPaint);
+
+        template = bitmap;
+        return template;
+    }
+}
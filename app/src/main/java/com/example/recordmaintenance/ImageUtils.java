@@ -4,23 +4,78 @@ import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.graphics.Rect;
 import android.net.Uri;
 import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.os.Trace;
 import android.util.Log;
 
+import androidx.annotation.WorkerThread;
+import androidx.exifinterface.media.ExifInterface;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ImageUtils {
 
     private static final String TAG = "ImageUtils";
     private static final String PROFILE_PHOTOS_DIR = "profile_photos";
+    private static final String CAMERA_CAPTURE_DIR = "camera";
+
+    /** Longest side of a stored profile photo; enough for full-screen viewing and print */
+    public static final int MAX_PHOTO_DIMENSION = 1280;
+    private static final int PHOTO_JPEG_QUALITY = 85;
+
+    // Photo decoding and encoding runs here, one photo at a time
+    private static final ExecutorService PHOTO_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private static final Set<String> derivativesInProgress = ConcurrentHashMap.newKeySet();
+
+    // Bitmaps decoded for drawing are returned here and decoded into again
+    private static final BitmapPool BITMAP_POOL = new BitmapPool(
+            Math.min(Runtime.getRuntime().maxMemory() / 16, 8L * 1024 * 1024));
+    private static final String TRACE_DECODE = "ImageUtils#decode";
+    private static int decodeCount;
+    private static long decodeNanos;
+    private static int decodeReusedCount;
+
+    /**
+     * Sizes a profile photo is stored at, smallest first. FULL is the saved photo
+     * itself; the others sit next to it with a suffix, e.g. EMP1_20250101_120000_thumb.jpg.
+     */
+    public enum PhotoSize {
+        THUMB(160, "_thumb"),
+        MEDIUM(480, "_medium"),
+        FULL(MAX_PHOTO_DIMENSION, "");
+
+        /** Bound on the longest side in pixels */
+        public final int maxDimension;
+        final String suffix;
+
+        PhotoSize(int maxDimension, String suffix) {
+            this.maxDimension = maxDimension;
+            this.suffix = suffix;
+        }
+    }
+
+    public interface SaveCallback {
+        void onSuccess(String path);
+        void onError(String error);
+    }
 
     /**
      * Create directory for storing profile photos
@@ -34,47 +89,262 @@ public class ImageUtils {
     }
 
     /**
-     * Generate unique filename for profile photo
+     * Temporary file for a camera capture; the capture is ingested with
+     * saveImageToInternalStorage and then deleted, so only the bounded copy is kept
      */
-    public static String generatePhotoFileName(String empId) {
-        String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date());
-        return empId + "_" + timeStamp + ".jpg";
+    public static File createCameraCaptureFile(Context context) {
+        File dir = new File(context.getCacheDir(), CAMERA_CAPTURE_DIR);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        return new File(dir, "capture_" + System.currentTimeMillis() + ".jpg");
     }
 
     /**
-     * Save image from URI to internal storage
+     * Ingest an image off the main thread; the callback runs on the main thread
      */
+    public static void saveImageToInternalStorageAsync(Context context, Uri imageUri, String empId,
+                                                       SaveCallback callback) {
+        Context appContext = context.getApplicationContext();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        PHOTO_EXECUTOR.execute(() -> {
+            String path = saveImageToInternalStorage(appContext, imageUri, empId);
+            mainHandler.post(() -> {
+                if (path != null) {
+                    callback.onSuccess(path);
+                } else {
+                    callback.onError("Could not read the image");
+                }
+            });
+        });
+    }
+
+    /**
+     * Save image from URI to internal storage, downsampled so its longest side is at
+     * most MAX_PHOTO_DIMENSION, turned upright according to its EXIF orientation and
+     * re-encoded as JPEG. An image that is already stored is not stored again; either
+     * way the caller holds a reference to the photo until it calls releaseProfilePhoto.
+     * @return the saved file's path, or null if the image could not be read
+     */
+    @WorkerThread
     public static String saveImageToInternalStorage(Context context, Uri imageUri, String empId) {
+        long start = SystemClock.elapsedRealtime();
         try {
-            InputStream inputStream = context.getContentResolver().openInputStream(imageUri);
-            if (inputStream == null) return null;
-
-            File profileDir = getProfilePhotosDirectory(context);
-            String fileName = generatePhotoFileName(empId);
-            File destinationFile = new File(profileDir, fileName);
+            // Bounds first, so the full-size image is never decoded
+            BitmapFactory.Options bounds = new BitmapFactory.Options();
+            bounds.inJustDecodeBounds = true;
+            try (InputStream in = context.getContentResolver().openInputStream(imageUri)) {
+                if (in == null) return null;
+                BitmapFactory.decodeStream(in, null, bounds);
+            }
+            if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+                Log.e(TAG, "Not a decodable image: " + imageUri);
+                return null;
+            }
 
-            FileOutputStream outputStream = new FileOutputStream(destinationFile);
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = calculateInSampleSize(bounds.outWidth, bounds.outHeight,
+                    MAX_PHOTO_DIMENSION, MAX_PHOTO_DIMENSION);
+            Bitmap sampled;
+            try (InputStream in = context.getContentResolver().openInputStream(imageUri)) {
+                sampled = BitmapFactory.decodeStream(in, null, options);
+            }
+            if (sampled == null) return null;
 
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
+            Bitmap upright = orientAndScale(sampled, readExif(context, imageUri), MAX_PHOTO_DIMENSION);
+            if (upright != sampled) {
+                sampled.recycle();
             }
 
-            inputStream.close();
-            outputStream.close();
+            PhotoStore store = new PhotoStore(context);
+            File destinationFile;
+            boolean duplicate;
+            try {
+                String hash = PhotoStore.contentHash(upright);
+                destinationFile = store.fileFor(hash);
+                duplicate = destinationFile.exists();
+                if (duplicate) {
+                    // Restarts photo cleanup's grace period for a photo nobody used lately
+                    destinationFile.setLastModified(System.currentTimeMillis());
+                } else {
+                    writeJpeg(upright, destinationFile);
+                    writeDerivatives(upright, destinationFile.getPath());
+                }
+                store.acquire(hash, !duplicate);
+            } finally {
+                upright.recycle();
+            }
 
-            Log.d(TAG, "Image saved to: " + destinationFile.getAbsolutePath());
+            Log.d(TAG, "Image for " + empId + (duplicate ? " already stored at: " : " saved to: ")
+                    + destinationFile.getAbsolutePath() + " (" + bounds.outWidth + "x" + bounds.outHeight
+                    + " -> " + getFileSizeKB(destinationFile.getPath())
+                    + " KB in " + (SystemClock.elapsedRealtime() - start) + " ms)");
             return destinationFile.getAbsolutePath();
 
-        } catch (IOException e) {
+        } catch (IOException | OutOfMemoryError e) {
             Log.e(TAG, "Error saving image", e);
             return null;
         }
     }
 
     /**
-     * Delete old profile photo
+     * Path of a stored size of a photo; the file exists only if it has been generated
+     */
+    public static String getDerivativePath(String photoPath, PhotoSize size) {
+        if (size.suffix.isEmpty()) return photoPath;
+        int dot = photoPath.lastIndexOf('.');
+        int slash = photoPath.lastIndexOf('/');
+        return dot > slash
+                ? photoPath.substring(0, dot) + size.suffix + photoPath.substring(dot)
+                : photoPath + size.suffix;
+    }
+
+    /**
+     * Path of the smallest stored size of a photo that covers the target size, so
+     * callers decode no more pixels than they draw. Photos saved before sizes were
+     * stored fall back to the original, and their sizes are generated in the background.
+     */
+    public static String getPhotoPathForSize(String photoPath, int targetWidth, int targetHeight) {
+        if (photoPath == null || photoPath.isEmpty()) return photoPath;
+        int target = Math.max(targetWidth, targetHeight);
+        for (PhotoSize size : PhotoSize.values()) {
+            if (size == PhotoSize.FULL) break;
+            if (size.maxDimension >= target) {
+                String path = getDerivativePath(photoPath, size);
+                if (new File(path).exists()) return path;
+                generateDerivativesAsync(photoPath);
+                break;
+            }
+        }
+        return photoPath;
+    }
+
+    /**
+     * Writes every smaller size, each scaled down from the next larger one
+     */
+    private static void writeDerivatives(Bitmap full, String photoPath) throws IOException {
+        PhotoSize[] sizes = PhotoSize.values();
+        Bitmap source = full;
+        for (int i = sizes.length - 2; i >= 0; i--) {
+            Bitmap scaled = scaleToFit(source, sizes[i].maxDimension);
+            try {
+                writeJpeg(scaled, new File(getDerivativePath(photoPath, sizes[i])));
+            } finally {
+                if (source != full && source != scaled) source.recycle();
+            }
+            source = scaled;
+        }
+        if (source != full) source.recycle();
+    }
+
+    private static Bitmap scaleToFit(Bitmap bitmap, int maxDimension) {
+        int longest = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (longest <= maxDimension) return bitmap;
+        float scale = (float) maxDimension / longest;
+        return Bitmap.createScaledBitmap(bitmap,
+                Math.max(1, Math.round(bitmap.getWidth() * scale)),
+                Math.max(1, Math.round(bitmap.getHeight() * scale)), true);
+    }
+
+    private static void generateDerivativesAsync(String photoPath) {
+        if (!derivativesInProgress.add(photoPath)) return;
+        PHOTO_EXECUTOR.execute(() -> {
+            try {
+                BitmapFactory.Options bounds = new BitmapFactory.Options();
+                bounds.inJustDecodeBounds = true;
+                BitmapFactory.decodeFile(photoPath, bounds);
+                if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return;
+
+                BitmapFactory.Options options = new BitmapFactory.Options();
+                options.inSampleSize = calculateInSampleSize(bounds.outWidth, bounds.outHeight,
+                        PhotoSize.MEDIUM.maxDimension, PhotoSize.MEDIUM.maxDimension);
+                Bitmap sampled = BitmapFactory.decodeFile(photoPath, options);
+                if (sampled == null) return;
+                // Older photos were stored as picked, so they may still need turning upright
+                Bitmap bitmap = orientAndScale(sampled, new ExifInterface(photoPath), PhotoSize.MEDIUM.maxDimension);
+                if (bitmap != sampled) {
+                    sampled.recycle();
+                }
+                try {
+                    writeDerivatives(bitmap, photoPath);
+                } finally {
+                    bitmap.recycle();
+                }
+            } catch (IOException | OutOfMemoryError e) {
+                Log.e(TAG, "Error creating photo sizes for " + photoPath, e);
+            } finally {
+                derivativesInProgress.remove(photoPath);
+            }
+        });
+    }
+
+    /**
+     * Largest power-of-two sample size that keeps the decoded image at least as
+     * large as the requested size in both dimensions
+     */
+    public static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int sampleSize = 1;
+        if (reqWidth <= 0 || reqHeight <= 0) return sampleSize;
+        while (width / (sampleSize * 2) >= reqWidth && height / (sampleSize * 2) >= reqHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static ExifInterface readExif(Context context, Uri imageUri) {
+        try (InputStream in = context.getContentResolver().openInputStream(imageUri)) {
+            return in != null ? new ExifInterface(in) : null;
+        } catch (IOException e) {
+            Log.w(TAG, "No EXIF data for " + imageUri, e);
+            return null;
+        }
+    }
+
+    /**
+     * Applies the EXIF rotation and mirroring and scales the longest side down to maxDimension
+     * @return the transformed bitmap, or the same bitmap if nothing had to change
+     */
+    private static Bitmap orientAndScale(Bitmap bitmap, ExifInterface exif, int maxDimension) {
+        Matrix matrix = new Matrix();
+        if (exif != null) {
+            matrix.setRotate(exif.getRotationDegrees());
+            if (exif.isFlipped()) {
+                matrix.postScale(-1, 1);
+            }
+        }
+        int longest = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (longest > maxDimension) {
+            float scale = (float) maxDimension / longest;
+            matrix.postScale(scale, scale);
+        }
+        if (matrix.isIdentity()) {
+            return bitmap;
+        }
+        return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+    }
+
+    /**
+     * Writes through a temporary file, so a failed encode never leaves a partial photo
+     */
+    private static void writeJpeg(Bitmap bitmap, File destination) throws IOException {
+        File temp = new File(destination.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            if (!bitmap.compress(Bitmap.CompressFormat.JPEG, PHOTO_JPEG_QUALITY, out)) {
+                throw new IOException("JPEG encoding failed");
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        if (!temp.renameTo(destination)) {
+            temp.delete();
+            throw new IOException("Could not move photo into place: " + destination);
+        }
+    }
+
+    /**
+     * Delete a photo and its stored sizes, whoever still uses them; employees'
+     * photos go through releaseProfilePhoto instead
      */
     public static boolean deleteProfilePhoto(String photoPath) {
         if (photoPath == null || photoPath.isEmpty()) {
@@ -82,6 +352,9 @@ public class ImageUtils {
         }
 
         try {
+            for (PhotoSize size : PhotoSize.values()) {
+                if (size != PhotoSize.FULL) new File(getDerivativePath(photoPath, size)).delete();
+            }
             File file = new File(photoPath);
             if (file.exists()) {
                 boolean deleted = file.delete();
@@ -94,6 +367,21 @@ public class ImageUtils {
         return false;
     }
 
+    /**
+     * Drops one employee's reference to a photo, deleting its files in the background
+     * once no employee on this device uses it
+     */
+    public static void releaseProfilePhoto(Context context, String photoPath) {
+        if (photoPath == null || photoPath.isEmpty()) return;
+        Context appContext = context.getApplicationContext();
+        PHOTO_EXECUTOR.execute(() -> {
+            String hash = PhotoStore.hashOf(photoPath);
+            if (hash == null || new PhotoStore(appContext).release(hash)) {
+                deleteProfilePhoto(photoPath);
+            }
+        });
+    }
+
     /**
      * Check if photo file exists
      */
@@ -113,44 +401,125 @@ public class ImageUtils {
     }
 
     /**
-     * Load bitmap from file path with memory optimization
+     * Decodes a photo at the largest sample size that still covers the target size,
+     * into a pooled bitmap when one fits. Pass the result to releaseBitmap once it
+     * has been drawn and is no longer referenced.
+     * @param config RGB_565 for photos only ever shown on screen, such as thumbnails,
+     *               at half the memory; ARGB_8888 for anything printed or exported,
+     *               where RGB_565 would band skin tones and gradients
+     * @return the decoded bitmap, or null if the file could not be decoded
      */
-    public static Bitmap loadBitmapFromPath(String path) {
+    public static Bitmap decodeSampledBitmap(String path, int reqWidth, int reqHeight, Bitmap.Config config) {
+        if (path == null || path.isEmpty()) return null;
+        Trace.beginSection(TRACE_DECODE);
+        long start = SystemClock.elapsedRealtimeNanos();
         try {
             BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inSampleSize = 2; // Scale down to reduce memory usage
-            options.inPreferredConfig = Bitmap.Config.RGB_565; // Use less memory
-            return BitmapFactory.decodeFile(path, options);
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading bitmap from path: " + path, e);
-            return null;
-        } catch (OutOfMemoryError e) {
-            Log.e(TAG, "Out of memory loading bitmap: " + path, e);
-            // Try with higher sample size
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(path, options);
+            int sourceWidth = options.outWidth;
+            int sourceHeight = options.outHeight;
+            if (sourceWidth <= 0 || sourceHeight <= 0) {
+                Log.w(TAG, "Not a decodable image: " + path);
+                return null;
+            }
+
+            options.inJustDecodeBounds = false;
+            options.inSampleSize = calculateInSampleSize(sourceWidth, sourceHeight, reqWidth, reqHeight);
+            options.inPreferredConfig = config;
+            options.inMutable = true; // Required to go back into the pool
+            // Rounded up, as some decoders round the sampled size up
+            int width = (sourceWidth + options.inSampleSize - 1) / options.inSampleSize;
+            int height = (sourceHeight + options.inSampleSize - 1) / options.inSampleSize;
+            int bytesPerPixel = config == Bitmap.Config.RGB_565 ? 2 : 4;
+            options.inBitmap = BITMAP_POOL.get(width * height * bytesPerPixel);
+            boolean reused = options.inBitmap != null;
+
+            Bitmap bitmap;
             try {
-                BitmapFactory.Options options = new BitmapFactory.Options();
-                options.inSampleSize = 4;
-                options.inPreferredConfig = Bitmap.Config.RGB_565;
-                return BitmapFactory.decodeFile(path, options);
-            } catch (Exception ex) {
-                Log.e(TAG, "Failed to load bitmap even with higher sample size", ex);
+                bitmap = BitmapFactory.decodeFile(path, options);
+            } catch (IllegalArgumentException e) {
+                // The decoder could not use the pooled bitmap after all
+                BITMAP_POOL.put(options.inBitmap);
+                options.inBitmap = null;
+                reused = false;
+                bitmap = BitmapFactory.decodeFile(path, options);
+            }
+            if (bitmap == null) {
+                BITMAP_POOL.put(options.inBitmap);
+                Log.w(TAG, "Failed to decode " + path);
                 return null;
             }
+
+            long elapsedNanos = SystemClock.elapsedRealtimeNanos() - start;
+            recordDecode(elapsedNanos, reused);
+            Log.d(TAG, String.format(Locale.US, "Decoded %s %dx%d -> %dx%d %s (sample %d, %s) in %.1f ms",
+                    new File(path).getName(), sourceWidth, sourceHeight, bitmap.getWidth(), bitmap.getHeight(),
+                    bitmap.getConfig(), options.inSampleSize, reused ? "reused" : "allocated", elapsedNanos / 1e6));
+            return bitmap;
+        } catch (OutOfMemoryError e) {
+            Log.e(TAG, "Out of memory decoding " + path, e);
+            BITMAP_POOL.clear();
+            return null;
+        } finally {
+            Trace.endSection();
         }
     }
 
     /**
-     * Clean up old unused photos (optional utility method)
+     * Hands a bitmap from decodeSampledBitmap back for reuse by later decodes
      */
-    public static void cleanupUnusedPhotos(Context context) {
-        // This method can be called periodically to clean up orphaned photo files
-        File profileDir = getProfilePhotosDirectory(context);
-        File[] files = profileDir.listFiles();
+    public static void releaseBitmap(Bitmap bitmap) {
+        BITMAP_POOL.put(bitmap);
+    }
 
-        if (files != null) {
-            // You can implement logic to check which photos are no longer referenced
-            // in the database and delete them
-            Log.d(TAG, "Found " + files.length + " profile photos");
-        }
+    /**
+     * The centred square of a bitmap, for drawing a photo into a square or circle without stretching it
+     */
+    public static Rect centerSquare(Bitmap bitmap) {
+        int side = Math.min(bitmap.getWidth(), bitmap.getHeight());
+        int left = (bitmap.getWidth() - side) / 2;
+        int top = (bitmap.getHeight() - side) / 2;
+        return new Rect(left, top, left + side, top + side);
+    }
+
+    private static synchronized void recordDecode(long elapsedNanos, boolean reused) {
+        decodeCount++;
+        decodeNanos += elapsedNanos;
+        if (reused) decodeReusedCount++;
+    }
+
+    /**
+     * Totals over every decodeSampledBitmap call so far, for logging and benchmarks
+     */
+    public static synchronized String getDecodeStats() {
+        double averageMs = decodeCount == 0 ? 0 : decodeNanos / 1e6 / decodeCount;
+        return String.format(Locale.US, "%d decodes, %.1f ms average, %d into reused bitmaps; %s",
+                decodeCount, averageMs, decodeReusedCount, BITMAP_POOL);
+    }
+
+    /**
+     * Deletes profile photos, stored sizes and temporary files that no employee
+     * references any more, in the background. Runs on the photo thread, so it never
+     * races a save. The callback runs on the main thread.
+     * @param referencedPaths profilePhotoPath of every employee, or null if this device
+     *                        does not know them all (see PhotoGarbageCollector)
+     */
+    public static void cleanupUnusedPhotos(Context context, Collection<String> referencedPaths,
+                                           PhotoGarbageCollector.Callback callback) {
+        File profileDir = getProfilePhotosDirectory(context);
+        // Copied on the caller's thread, as the caller may keep changing its collection
+        PhotoGarbageCollector collector = new PhotoGarbageCollector(
+                referencedPaths != null ? new ArrayList<>(referencedPaths) : null);
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        PHOTO_EXECUTOR.execute(() -> {
+            long start = SystemClock.elapsedRealtime();
+            PhotoGarbageCollector.Result result = collector.collect(profileDir,
+                    System.currentTimeMillis(), PhotoGarbageCollector.DEFAULT_BYTE_BUDGET);
+            Log.i(TAG, "Photo cleanup " + result + " in " + (SystemClock.elapsedRealtime() - start) + " ms");
+            if (callback != null) {
+                mainHandler.post(() -> callback.onComplete(result));
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.example.recordmaintenance;
+
+import java.util.Calendar;
+
+/**
+ * Parses the free-form joined date strings into days since 1970-01-01.
+ * The date picker writes dd/MM/yyyy; older records and imports use yyyy-MM-dd.
+ * Arithmetic only, since java.time needs API 26 and minSdk is 23.
+ */
+public final class JoinedDates {
+
+    /** Epoch day for dates that are missing or cannot be parsed */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private JoinedDates() {}
+
+    /**
+     * @return the epoch day, or {@link #UNKNOWN}
+     */
+    public static int toEpochDay(String date) {
+        if (date == null) return UNKNOWN;
+        String s = date.trim();
+        if (s.length() < 8) return UNKNOWN;
+
+        char separator = s.indexOf('/') >= 0 ? '/' : '-';
+        int first = s.indexOf(separator);
+        int second = first >= 0 ? s.indexOf(separator, first + 1) : -1;
+        if (first < 0 || second < 0) return UNKNOWN;
+
+        int a = parseNumber(s, 0, first);
+        int b = parseNumber(s, first + 1, second);
+        int c = parseNumber(s, second + 1, s.length());
+        if (a < 0 || b < 0 || c < 0) return UNKNOWN;
+
+        // yyyy-MM-dd when the first part is a year, day-first otherwise
+        return first == 4 ? ofDate(a, b, c) : ofDate(c, b, a);
+    }
+
+    /**
+     * Epoch day of a calendar date, or {@link #UNKNOWN} if the date does not exist
+     */
+    public static int ofDate(int year, int month, int day) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return UNKNOWN;
+        }
+        // Days from civil, shifting the year to start in March
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Epoch day of today in the device time zone
+     */
+    public static int today() {
+        return monthsAgo(0);
+    }
+
+    /**
+     * Epoch day of the same calendar day the given number of months ago,
+     * clamped to the end of shorter months
+     */
+    public static int monthsAgo(int months) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.MONTH, -months);
+        return ofDate(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int parseNumber(String s, int start, int end) {
+        if (start >= end || end - start > 4) return -1;
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') return -1;
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+}
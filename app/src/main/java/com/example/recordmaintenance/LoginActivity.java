@@ -62,7 +62,7 @@ public class LoginActivity extends AppCompatActivity {
         tvForgot = findViewById(R.id.tvForgot);
         progress = findViewById(R.id.progress);
 
-        authRepository = new AuthRepository(this);
+        authRepository = Repositories.auth(this);
         setupGoogleSignIn();
 
         if (authRepository.isUserSignedIn()) {
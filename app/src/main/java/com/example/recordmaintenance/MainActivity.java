@@ -13,6 +13,7 @@ import android.view.MenuItem;
 import android.view.View;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
@@ -20,13 +21,14 @@ import androidx.appcompat.widget.SearchView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.cardview.widget.CardView;
+import androidx.lifecycle.ViewModelProvider;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.floatingactionbutton.ExtendedFloatingActionButton;
+import com.google.android.material.progressindicator.LinearProgressIndicator;
 import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -36,6 +38,9 @@ public class MainActivity extends AppCompatActivity {
     private static final int REQUEST_ADD = 100;
     private static final int REQUEST_EDIT = 101;
     private static final int REQ_CREATE_CSV = 1020;
+    private static final int REQ_CREATE_ID_CARDS = 1021;
+    private static final String STATE_ID_CARD_OUTPUT = "idCardOutput";
+    private static final int FIRST_PAGE_SIZE = 50;
 
     // UI Components
     private MaterialToolbar toolbar;
@@ -52,8 +57,18 @@ public class MainActivity extends AppCompatActivity {
     private EmployeeRepository repository;
     private AuthRepository authRepository;
     private EmployeeAdapter adapter;
+    private final EmployeeStore employeeStore = new EmployeeStore();
     private String currentRole;
     private String currentEmployeeId;
+    private boolean fullyDrawnReported;
+    // Once per process; the sync completes again whenever the activity is recreated
+    private static boolean photosCleanedUp;
+
+    // ID card batch export, kept across configuration changes by the view model
+    private IdCardBatchExporter.Output idCardOutput;
+    private IdCardExportViewModel idCardExport;
+    private AlertDialog idCardProgressDialog;
+    private LinearProgressIndicator idCardProgress;
 
     // Filter & Search Components
     private SearchView searchView;
@@ -65,8 +80,8 @@ public class MainActivity extends AppCompatActivity {
         setContentView(R.layout.activity_main);
 
         // Initialize repositories
-        repository = new EmployeeRepository(this);
-        authRepository = new AuthRepository(this);
+        repository = Repositories.employees(this);
+        authRepository = Repositories.auth(this);
         repository.open();
 
         // Get current role from intent (fallback to admin)
@@ -91,6 +106,20 @@ public class MainActivity extends AppCompatActivity {
         // Load data for admin
         loadEmployeeData();
         updateLastRefreshTime();
+
+        // Chosen before the document picker opened, which may outlive this instance
+        if (savedInstanceState != null && savedInstanceState.getString(STATE_ID_CARD_OUTPUT) != null) {
+            idCardOutput = IdCardBatchExporter.Output.valueOf(savedInstanceState.getString(STATE_ID_CARD_OUTPUT));
+        }
+        attachIdCardExport();
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (idCardOutput != null) {
+            outState.putString(STATE_ID_CARD_OUTPUT, idCardOutput.name());
+        }
     }
 
     private void initializeViews() {
@@ -132,6 +161,11 @@ public class MainActivity extends AppCompatActivity {
         recyclerView.setHasFixedSize(true);
         int spacing = getResources().getDimensionPixelSize(R.dimen.recycler_item_spacing);
         recyclerView.addItemDecoration(new SpacingItemDecoration(spacing));
+
+        adapter = new EmployeeAdapter(this, employeeStore);
+        setupAdapterClickListeners();
+        adapter.setOnFilterResultListener((filteredCount, totalCount) -> updateFilterStatus());
+        recyclerView.setAdapter(adapter);
     }
 
     private void setupFloatingActionButton() {
@@ -157,55 +191,147 @@ public class MainActivity extends AppCompatActivity {
         currentFilterCriteria = new EmployeeAdapter.FilterCriteria();
     }
 
+    /**
+     * Shows employees as soon as any are at hand, then keeps the list in sync. The sync
+     * replays every employee once before applying deltas, and filters, sorting and
+     * search work on the whole roster, so only first paint is served from elsewhere:
+     * the local cache, or on a cold start with an empty cache, a first page.
+     */
     private void loadEmployeeData() {
+        if (employeeStore.size() > 0) {
+            startLiveSync();
+            return;
+        }
+
         // Show loading state
         emptyStateLayout.setVisibility(View.GONE);
         recyclerView.setVisibility(View.GONE);
 
-        // Load employees from Firebase
-        repository.getAllEmployees(new EmployeeRepository.EmployeeListCallback() {
+        // Render the last synced list right away while Firebase connects
+        repository.getCachedEmployees(new EmployeeRepository.EmployeeListCallback() {
             @Override
             public void onSuccess(List<Employee> employees) {
-                // Update UI on main thread
+                if (employees.isEmpty()) {
+                    loadFirstPage();
+                    return;
+                }
+                displayEmployees(employees);
+                startLiveSync();
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Local cache unavailable: " + error);
+                loadFirstPage();
+            }
+        });
+    }
+
+    /**
+     * Lists the first page on its own, so time to first row does not grow with the
+     * roster; the sync started afterwards delivers the rest
+     */
+    private void loadFirstPage() {
+        repository.getEmployeesPage(null, FIRST_PAGE_SIZE, new EmployeeRepository.EmployeePageCallback() {
+            @Override
+            public void onSuccess(List<Employee> employees, String nextCursor) {
+                displayEmployees(employees);
+                startLiveSync();
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "First page failed: " + error);
+                // The sync reports its own failure
+                startLiveSync();
+            }
+        });
+    }
+
+    /**
+     * Keep the list in sync with Firebase by applying per-employee deltas
+     * instead of reloading the whole list after every change
+     */
+    private void startLiveSync() {
+        repository.startEmployeeSync(new EmployeeRepository.EmployeeSyncCallback() {
+            @Override
+            public void onEmployeeUpserted(Employee employee) {
+                runOnUiThread(() -> {
+                    if (employeeStore.upsert(employee)) {
+                        onEmployeeDataChanged();
+                    }
+                });
+            }
+
+            @Override
+            public void onEmployeeRemoved(String uid) {
                 runOnUiThread(() -> {
-                    displayEmployees(employees);
+                    if (employeeStore.remove(uid)) {
+                        onEmployeeDataChanged();
+                    }
+                });
+            }
+
+            @Override
+            public void onInitialSyncComplete(Set<String> uids) {
+                // Drop cached employees that were deleted while the app was away
+                runOnUiThread(() -> {
+                    if (employeeStore.retainOnly(uids)) {
+                        onEmployeeDataChanged();
+                    }
+                    cleanUpPhotosOnce();
                 });
             }
 
             @Override
             public void onError(String error) {
-                // Handle error on main thread
                 runOnUiThread(() -> {
-                    Log.e(TAG, "Failed to load employees: " + error);
+                    Log.e(TAG, "Employee sync stopped: " + error);
                     Toast.makeText(MainActivity.this, "Failed to load employees: " + error, Toast.LENGTH_LONG).show();
-
-                    // Show empty state
-                    emptyStateLayout.setVisibility(View.VISIBLE);
-                    recyclerView.setVisibility(View.GONE);
+                    // Cached employees stay listed
+                    onEmployeeDataChanged();
                 });
             }
         });
     }
 
     private void displayEmployees(List<Employee> employees) {
-        if (employees.isEmpty()) {
+        // Merge rather than replace so cached rows stay visible until the sync reconciles them
+        adapter.appendEmployees(employees);
+        onEmployeeDataChanged();
+    }
+
+    private void onEmployeeDataChanged() {
+        if (employeeStore.size() == 0) {
             emptyStateLayout.setVisibility(View.VISIBLE);
             recyclerView.setVisibility(View.GONE);
         } else {
             emptyStateLayout.setVisibility(View.GONE);
             recyclerView.setVisibility(View.VISIBLE);
-
-            if (adapter == null) {
-                adapter = new EmployeeAdapter(this, employees);
-                setupAdapterClickListeners();
-                recyclerView.setAdapter(adapter);
-            } else {
-                adapter.updateList(employees);
+            if (!fullyDrawnReported) {
+                // Startup ends once the first employees are listed
+                fullyDrawnReported = true;
+                reportFullyDrawn();
             }
         }
         updateFilterStatus();
     }
 
+    /**
+     * Deletes photos no employee references any more. Only valid once the initial
+     * sync has completed, as the store then holds every employee's photo path.
+     */
+    private void cleanUpPhotosOnce() {
+        // The fake roster references no photos, so it would delete every real one
+        if (photosCleanedUp || BuildConfig.FAKE_BACKEND) return;
+        photosCleanedUp = true;
+        ImageUtils.cleanupUnusedPhotos(this, employeeStore.getProfilePhotoPaths(), result -> {
+            if (result.reclaimedBytes > 0) {
+                Log.i(TAG, "Reclaimed " + result.reclaimedBytes / 1024 + " KB of unused photos");
+            }
+        });
+    }
+
     private void setupAdapterClickListeners() {
         adapter.setOnItemClickListener(new EmployeeAdapter.OnItemClickListener() {
             @Override
@@ -242,7 +368,7 @@ public class MainActivity extends AppCompatActivity {
             public void onSuccess(String message) {
                 runOnUiThread(() -> {
                     Toast.makeText(MainActivity.this, message, Toast.LENGTH_SHORT).show();
-                    loadEmployeeData(); // Refresh the list
+                    // The live sync delivers the removal to the list
                 });
             }
 
@@ -296,7 +422,6 @@ public class MainActivity extends AppCompatActivity {
                 if (adapter != null) {
                     adapter.applyAdvancedFilter(criteria);
                     adapter.sortBy(sortCriteria);
-                    updateFilterStatus();
                 }
                 Toast.makeText(MainActivity.this, "Filter and sort applied", Toast.LENGTH_SHORT).show();
             }
@@ -306,7 +431,6 @@ public class MainActivity extends AppCompatActivity {
                 currentFilterCriteria = new EmployeeAdapter.FilterCriteria();
                 if (adapter != null) {
                     adapter.applyAdvancedFilter(currentFilterCriteria);
-                    updateFilterStatus();
                 }
                 if (searchView != null) {
                     searchView.setQuery("", false);
@@ -316,31 +440,18 @@ public class MainActivity extends AppCompatActivity {
             }
 
             @Override
-            public List<String> getDepartmentList() {
-                Set<String> departments = new HashSet<>();
-                if (adapter != null) {
-                    List<Employee> employees = adapter.getCurrentItems();
-                    for (Employee emp : employees) {
-                        if (emp.getDepartment() != null && !emp.getDepartment().trim().isEmpty()) {
-                            departments.add(emp.getDepartment());
-                        }
-                    }
-                }
-                return new ArrayList<>(departments);
+            public List<EmployeeFacets.Facet> getDepartmentFacets() {
+                return adapter != null ? adapter.getFacets().getDepartmentFacets() : new ArrayList<>();
             }
 
             @Override
-            public List<String> getDesignationList() {
-                Set<String> designations = new HashSet<>();
-                if (adapter != null) {
-                    List<Employee> employees = adapter.getCurrentItems();
-                    for (Employee emp : employees) {
-                        if (emp.getDesignation() != null && !emp.getDesignation().trim().isEmpty()) {
-                            designations.add(emp.getDesignation());
-                        }
-                    }
-                }
-                return new ArrayList<>(designations);
+            public List<EmployeeFacets.Facet> getDesignationFacets() {
+                return adapter != null ? adapter.getFacets().getDesignationFacets() : new ArrayList<>();
+            }
+
+            @Override
+            public double[] getSalaryBounds() {
+                return adapter != null ? adapter.getFacets().getSalaryBounds() : null;
             }
         });
 
@@ -462,6 +573,95 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    // ============= ID CARD BATCH EXPORT =============
+    private void chooseIdCardOutput() {
+        int count = adapter.getFilteredCount();
+        new AlertDialog.Builder(this)
+                .setTitle("Export " + count + " ID Card(s)")
+                .setItems(new String[]{
+                        "PDF (" + IdCardBatchExporter.CARDS_PER_PAGE + " cards per A4 page)",
+                        "ZIP of PNG images"}, (dialog, which) -> {
+                    idCardOutput = which == 0 ? IdCardBatchExporter.Output.PDF : IdCardBatchExporter.Output.ZIP;
+                    launchCreateIdCardsDocument(idCardOutput);
+                })
+                .show();
+    }
+
+    private void launchCreateIdCardsDocument(IdCardBatchExporter.Output output) {
+        String suggestedName = "ID_Cards_" +
+                new SimpleDateFormat("yyyy-MM-dd_HH-mm", Locale.getDefault()).format(new Date()) +
+                output.extension;
+
+        Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType(output.mimeType);
+        intent.putExtra(Intent.EXTRA_TITLE, suggestedName);
+
+        try {
+            startActivityForResult(intent, REQ_CREATE_ID_CARDS);
+        } catch (Exception e) {
+            Toast.makeText(this, "File picker not available: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+
+    private void exportIdCards(Uri uri, IdCardBatchExporter.Output output) {
+        List<Employee> employeesToExport = getEmployeesForExport();
+        if (employeesToExport.isEmpty()) {
+            Toast.makeText(this, "No employees to export", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        idCardExport.start(uri, employeesToExport, output);
+        showIdCardProgress(employeesToExport.size());
+    }
+
+    /**
+     * Follows an export that may have been started by an earlier instance of this activity
+     */
+    private void attachIdCardExport() {
+        idCardExport = new ViewModelProvider(this).get(IdCardExportViewModel.class);
+        if (idCardExport.isRunning()) {
+            showIdCardProgress(idCardExport.getTotal());
+        }
+        idCardExport.setListener(new IdCardExportViewModel.Listener() {
+            @Override
+            public void onProgress(int exported, int total) {
+                if (idCardProgressDialog == null) return;
+                idCardProgress.setProgressCompat(exported, true);
+                idCardProgressDialog.setMessage(exported + " of " + total);
+            }
+
+            @Override
+            public void onFinished(int count, int skipped, @Nullable String error) {
+                if (idCardProgressDialog != null) {
+                    idCardProgressDialog.dismiss();
+                    idCardProgressDialog = null;
+                }
+                if (error == null && skipped > 0) {
+                    Toast.makeText(MainActivity.this, "Exported " + count + " ID card(s); " + skipped
+                            + " could not be created", Toast.LENGTH_LONG).show();
+                } else if (error == null) {
+                    Toast.makeText(MainActivity.this, "Exported " + count + " ID card(s)", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(MainActivity.this, "ID card export failed: " + error, Toast.LENGTH_LONG).show();
+                }
+            }
+        });
+    }
+
+    private void showIdCardProgress(int total) {
+        idCardProgress = new LinearProgressIndicator(this);
+        idCardProgress.setMax(total);
+        int padding = (int) (24 * getResources().getDisplayMetrics().density);
+        idCardProgress.setPadding(padding, padding / 2, padding, 0);
+        idCardProgressDialog = new AlertDialog.Builder(this)
+                .setTitle("Exporting ID Cards")
+                .setMessage("0 of " + total)
+                .setView(idCardProgress)
+                .setCancelable(false)
+                .setNegativeButton("Cancel", (d, w) -> idCardExport.cancel())
+                .show();
+    }
+
     // ============= MENU HANDLING =============
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
@@ -481,8 +681,8 @@ public class MainActivity extends AppCompatActivity {
                     @Override
                     public boolean onQueryTextChange(String newText) {
                         if (adapter != null) {
-                            adapter.getFilter().filter(newText);
-                            updateFilterStatus();
+                            // Counts follow through the filter result listener
+                            adapter.search(newText);
                         }
                         return true;
                     }
@@ -531,6 +731,17 @@ public class MainActivity extends AppCompatActivity {
             return true;
         }
 
+        if (id == R.id.action_export_id_cards) {
+            if (adapter == null || adapter.getFilteredCount() == 0) {
+                Toast.makeText(this, "No employees to export", Toast.LENGTH_SHORT).show();
+            } else if (idCardExport.isRunning()) {
+                Toast.makeText(this, "ID cards are already being exported", Toast.LENGTH_SHORT).show();
+            } else {
+                chooseIdCardOutput();
+            }
+            return true;
+        }
+
         if (id == R.id.action_logout) {
             new AlertDialog.Builder(this)
                     .setTitle("Logout")
@@ -556,8 +767,7 @@ public class MainActivity extends AppCompatActivity {
         super.onActivityResult(req, res, data);
 
         if ((req == REQUEST_ADD || req == REQUEST_EDIT) && res == RESULT_OK) {
-            loadEmployeeData();
-            updateLastRefreshTime();
+            // The live sync delivers the new or edited employee to the list
             String message = (req == REQUEST_ADD) ? "Employee added successfully" : "Employee updated successfully";
             Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
             return;
@@ -567,18 +777,25 @@ public class MainActivity extends AppCompatActivity {
             exportToUri(data.getData());
             return;
         }
-    }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        if (!"employee".equals(currentRole)) {
-            loadEmployeeData();
+        if (req == REQ_CREATE_ID_CARDS && res == RESULT_OK && data != null && data.getData() != null
+                && idCardOutput != null) {
+            exportIdCards(data.getData(), idCardOutput);
         }
     }
 
     @Override
     protected void onDestroy() {
+        if (idCardExport != null) {
+            // The export carries on for the next instance; it is cancelled once the activity finishes
+            idCardExport.setListener(null);
+        }
+        if (idCardProgressDialog != null) {
+            idCardProgressDialog.dismiss();
+        }
+        if (adapter != null) {
+            adapter.release();
+        }
         if (repository != null) {
             repository.close();
         }
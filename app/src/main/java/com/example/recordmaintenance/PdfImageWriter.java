@@ -0,0 +1,143 @@
+package com.example.recordmaintenance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes a PDF of pages holding images, streaming each object out as soon as it is
+ * complete. PdfDocument keeps every page until the document is written, so its
+ * memory grows with the page count; here only the positions of objects written so
+ * far are kept. Images are RGB, 8 bits per component, already deflated.
+ */
+final class PdfImageWriter {
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+
+    private final OutputStream out;
+    private final float pageWidth;
+    private final float pageHeight;
+    // Offset of each object by number; catalog and pages tree are written last
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+    private final StringBuilder pageContent = new StringBuilder();
+    private final StringBuilder pageImages = new StringBuilder();
+    private long position;
+    private int imagesOnPage;
+
+    /**
+     * Writes the header
+     * @param pageWidth page width in points
+     * @param pageHeight page height in points
+     */
+    PdfImageWriter(OutputStream out, float pageWidth, float pageHeight) throws IOException {
+        this.out = out;
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        offsets.add(0L); // Object 0 is the head of the free list
+        offsets.add(0L);
+        offsets.add(0L);
+        write("%PDF-1.4\n");
+        // Binary comment, so the file is transferred as binary
+        write(new byte[]{'%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n'});
+    }
+
+    /**
+     * Writes an image and places it on the current page
+     * @param deflatedRgb the image's pixels, row by row, 3 bytes each, deflated
+     * @param x left edge in points from the left of the page
+     * @param y top edge in points from the top of the page
+     */
+    void addImage(int pixelWidth, int pixelHeight, byte[] deflatedRgb,
+                  float x, float y, float width, float height) throws IOException {
+        int image = beginObject();
+        write("<< /Type /XObject /Subtype /Image /Width " + pixelWidth + " /Height " + pixelHeight
+                + " /ColorSpace /DeviceRGB /BitsPerComponent 8 /Filter /FlateDecode /Length "
+                + deflatedRgb.length + " >>\nstream\n");
+        write(deflatedRgb);
+        write("\nendstream\nendobj\n");
+
+        String name = "/Im" + imagesOnPage++;
+        pageImages.append(name).append(' ').append(image).append(" 0 R ");
+        // PDF coordinates start at the bottom left
+        pageContent.append("q ").append(number(width)).append(" 0 0 ").append(number(height)).append(' ')
+                .append(number(x)).append(' ').append(number(pageHeight - y - height)).append(" cm ")
+                .append(name).append(" Do Q\n");
+    }
+
+    /**
+     * Writes the current page, if it has any images
+     */
+    void finishPage() throws IOException {
+        if (imagesOnPage == 0) return;
+        byte[] content = pageContent.toString().getBytes(StandardCharsets.US_ASCII);
+        int contentObject = beginObject();
+        write("<< /Length " + content.length + " >>\nstream\n");
+        write(content);
+        write("\nendstream\nendobj\n");
+
+        int page = beginObject();
+        write("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + number(pageWidth) + " "
+                + number(pageHeight) + "] /Resources << /XObject << " + pageImages + ">> >> /Contents "
+                + contentObject + " 0 R >>\nendobj\n");
+        pageObjects.add(page);
+
+        pageContent.setLength(0);
+        pageImages.setLength(0);
+        imagesOnPage = 0;
+    }
+
+    int getPageCount() {
+        return pageObjects.size();
+    }
+
+    /**
+     * Finishes the current page and writes the document's trailer. Does not close the stream.
+     */
+    void finish() throws IOException {
+        finishPage();
+        StringBuilder kids = new StringBuilder();
+        for (int page : pageObjects) {
+            kids.append(page).append(" 0 R ");
+        }
+        offsets.set(PAGES, position);
+        write(PAGES + " 0 obj\n<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size()
+                + " >>\nendobj\n");
+        offsets.set(CATALOG, position);
+        write(CATALOG + " 0 obj\n<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+
+        long xref = position;
+        StringBuilder table = new StringBuilder("xref\n0 " + offsets.size() + "\n0000000000 65535 f \n");
+        for (int i = 1; i < offsets.size(); i++) {
+            table.append(String.format(Locale.ROOT, "%010d 00000 n \n", offsets.get(i)));
+        }
+        write(table.toString());
+        write("trailer\n<< /Size " + offsets.size() + " /Root " + CATALOG + " 0 R >>\nstartxref\n"
+                + xref + "\n%%EOF\n");
+        out.flush();
+    }
+
+    private int beginObject() throws IOException {
+        int number = offsets.size();
+        offsets.add(position);
+        write(number + " 0 obj\n");
+        return number;
+    }
+
+    private void write(String text) throws IOException {
+        write(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private static String number(float value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.recordmaintenance;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Base64;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local copies of employees' profile photos, at two levels: decoded bitmaps in a
+ * memory LRU bounded by bytes, and photos fetched from Firebase Storage in a disk
+ * LRU bounded by size, which lasts across sessions. A photo saved on this device is
+ * read from its own file and never fetched.
+ * Downloads are checked against the MD5 that Storage reports. Content-addressed
+ * photos never change, so a cached copy stays valid for as long as it exists; any
+ * other photo is checked against its Storage generation once per session.
+ */
+public final class PhotoCache {
+
+    private static final String TAG = "PhotoCache";
+    private static final String DISK_DIR = "photo_cache";
+    private static final String PREFS_NAME = "photo_cache";
+    private static final long DISK_BUDGET_BYTES = 50L * 1024 * 1024;
+
+    public interface Callback {
+        void onPhotoLoaded(@Nullable Bitmap bitmap);
+    }
+
+    public interface FileCallback {
+        void onFileReady(@Nullable File file);
+    }
+
+    private static PhotoCache instance;
+
+    private final File diskDir;
+    private final SharedPreferences generations;
+    private final LruCache<String, Bitmap> memory;
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Photos with a generation that has been checked this session
+    private final Set<String> validated = ConcurrentHashMap.newKeySet();
+    // By disk file name, for as long as a fetch holds or waits on the lock
+    private final Map<String, FetchLock> fetchLocks = new ConcurrentHashMap<>();
+
+    private final AtomicInteger diskHits = new AtomicInteger();
+    private final AtomicInteger diskMisses = new AtomicInteger();
+    private final AtomicInteger diskEvictions = new AtomicInteger();
+    private final AtomicInteger downloads = new AtomicInteger();
+    private final AtomicLong downloadedBytes = new AtomicLong();
+    private final AtomicInteger rejectedDownloads = new AtomicInteger();
+
+    private PhotoCache(Context context) {
+        diskDir = new File(context.getCacheDir(), DISK_DIR);
+        diskDir.mkdirs();
+        generations = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        int maxBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 8, 32L * 1024 * 1024);
+        memory = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+        // Decoded bitmaps are cheap to recreate from disk, so they go first when memory runs low
+        context.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_BACKGROUND) {
+                    memory.evictAll();
+                } else if (level >= TRIM_MEMORY_UI_HIDDEN) {
+                    memory.trimToSize(memory.maxSize() / 2);
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                memory.evictAll();
+            }
+        });
+    }
+
+    public static synchronized PhotoCache get(Context context) {
+        if (instance == null) {
+            instance = new PhotoCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Whether the employee has a photo, here or in Storage
+     */
+    public static boolean hasPhoto(Employee employee) {
+        return employee != null
+                && (ImageUtils.isPhotoExists(employee.getProfilePhotoPath()) || employee.getProfilePhotoRef() != null);
+    }
+
+    /**
+     * Loads an employee's photo decoded for the given size and config (see
+     * ImageUtils.decodeSampledBitmap), fetching it if no copy is on the device. The
+     * callback runs on the main thread, with null if there is no photo. The bitmap is
+     * shared with the cache, so it must not be recycled.
+     */
+    public void load(Employee employee, int width, int height, Bitmap.Config config, Callback callback) {
+        String localPath = employee.getProfilePhotoPath();
+        String remoteRef = employee.getProfilePhotoRef();
+        // Only a content-addressed photo's key is known without touching the disk
+        String hashKey = hashKey(localPath, remoteRef, width, height, config);
+        Bitmap cached = hashKey != null ? memory.get(hashKey) : null;
+        if (cached != null) {
+            callback.onPhotoLoaded(cached);
+            return;
+        }
+        executor.execute(() -> {
+            String key = hashKey != null ? hashKey : pathKey(localPath, remoteRef, width, height, config);
+            Bitmap bitmap = key != null ? memory.get(key) : null;
+            if (bitmap == null && key != null) {
+                File file = getFile(localPath, remoteRef, width, height);
+                bitmap = file != null ? ImageUtils.decodeSampledBitmap(file.getPath(), width, height, config) : null;
+                if (bitmap != null) {
+                    memory.put(key, bitmap);
+                }
+            }
+            Bitmap loaded = bitmap;
+            mainHandler.post(() -> callback.onPhotoLoaded(loaded));
+        });
+    }
+
+    /**
+     * Like getFile, off the main thread; the callback runs on the main thread
+     */
+    public void loadFile(String localPath, String remoteRef, int width, int height, FileCallback callback) {
+        executor.execute(() -> {
+            File file = getFile(localPath, remoteRef, width, height);
+            mainHandler.post(() -> callback.onFileReady(file));
+        });
+    }
+
+    /**
+     * A local file of the photo, at the smallest stored size that covers the target
+     * size when there is a choice, fetching the photo from Storage on a cache miss
+     * @return the file, or null if there is no photo or it could not be fetched
+     */
+    @WorkerThread
+    @Nullable
+    public File getFile(String localPath, String remoteRef, int width, int height) {
+        File local = getCachedFile(localPath, remoteRef, width, height);
+        if (local != null && (remoteRef == null || ImageUtils.isPhotoExists(localPath) || isValid(remoteRef))) {
+            return local;
+        }
+        return remoteRef != null ? fetch(remoteRef, width, height) : null;
+    }
+
+    /**
+     * A local file of the photo if one is already on the device; never touches the
+     * network, so it may be used on the main thread
+     */
+    @Nullable
+    public File getCachedFile(String localPath, String remoteRef, int width, int height) {
+        if (ImageUtils.isPhotoExists(localPath)) {
+            return new File(ImageUtils.getPhotoPathForSize(localPath, width, height));
+        }
+        if (remoteRef == null) return null;
+        File cached = diskFile(remoteRef);
+        if (!cached.exists()) {
+            diskMisses.incrementAndGet();
+            return null;
+        }
+        diskHits.incrementAndGet();
+        // Recently used photos are the last to be evicted
+        cached.setLastModified(System.currentTimeMillis());
+        return new File(ImageUtils.getPhotoPathForSize(cached.getPath(), width, height));
+    }
+
+    /**
+     * Hit, miss and eviction counts of both levels, for logging and benchmarks
+     */
+    public String getStats() {
+        return "memory{" + memory.size() / 1024 + "/" + memory.maxSize() / 1024 + " KB, hits=" + memory.hitCount()
+                + ", misses=" + memory.missCount() + ", evictions=" + memory.evictionCount()
+                + "} disk{hits=" + diskHits.get() + ", misses=" + diskMisses.get()
+                + ", evictions=" + diskEvictions.get() + ", downloads=" + downloads.get()
+                + " (" + downloadedBytes.get() / 1024 + " KB), rejected=" + rejectedDownloads.get() + "}";
+    }
+
+    /**
+     * Memory key of a content-addressed photo, shared by its local and remote copies
+     * @return the key, or null if neither copy is content-addressed
+     */
+    private static String hashKey(String localPath, String remoteRef, int width, int height,
+                                  Bitmap.Config config) {
+        String hash = PhotoStore.hashOf(localPath);
+        if (hash == null) hash = PhotoStore.hashOf(remoteRef);
+        return hash != null ? hash + "@" + width + "x" + height + "/" + config : null;
+    }
+
+    /**
+     * Memory key of a photo saved before photos were content-addressed, by whichever
+     * copy would be read; looks for the local file
+     * @return the key, or null if there is no photo
+     */
+    @WorkerThread
+    private static String pathKey(String localPath, String remoteRef, int width, int height,
+                                  Bitmap.Config config) {
+        String source = ImageUtils.isPhotoExists(localPath) ? localPath : remoteRef;
+        return source != null ? source + "@" + width + "x" + height + "/" + config : null;
+    }
+
+    private File diskFile(String remoteRef) {
+        String hash = PhotoStore.hashOf(remoteRef);
+        String name = hash != null ? hash : remoteRef.replaceAll("[^A-Za-z0-9._-]", "_");
+        return new File(diskDir, name.endsWith(".jpg") ? name : name + ".jpg");
+    }
+
+    /**
+     * Whether a cached photo is still the one in Storage. Content-addressed photos
+     * always are; others compare generations once per session, and stay valid
+     * while Storage cannot be reached.
+     */
+    @WorkerThread
+    private boolean isValid(String remoteRef) {
+        if (PhotoStore.hashOf(remoteRef) != null || validated.contains(remoteRef)) return true;
+        File cached = diskFile(remoteRef);
+        try {
+            StorageMetadata metadata = Tasks.await(PhotoUploader.storage().getReference(remoteRef).getMetadata());
+            validated.add(remoteRef);
+            if (metadata.getGeneration() != null
+                    && metadata.getGeneration().equals(generations.getString(cached.getName(), null))) {
+                return true;
+            }
+            Log.d(TAG, remoteRef + " changed in Storage; fetching it again");
+            ImageUtils.deleteProfilePhoto(cached.getPath());
+            return false;
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Could not check " + remoteRef + "; using the cached copy", e);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    @WorkerThread
+    private File fetch(String remoteRef, int width, int height) {
+        File destination = diskFile(remoteRef);
+        String name = destination.getName();
+        // One download per photo, however many views ask for it at once. The lock is
+        // dropped only by its last user, so a later fetch never gets a second lock
+        // while another thread still downloads under the first.
+        FetchLock lock = fetchLocks.compute(name, (key, held) -> {
+            FetchLock acquired = held != null ? held : new FetchLock();
+            acquired.users++;
+            return acquired;
+        });
+        try {
+            synchronized (lock) {
+                if (destination.exists()) {
+                    return new File(ImageUtils.getPhotoPathForSize(destination.getPath(), width, height));
+                }
+                return download(remoteRef, destination, width, height);
+            }
+        } finally {
+            fetchLocks.computeIfPresent(name, (key, held) -> --held.users == 0 ? null : held);
+        }
+    }
+
+    /**
+     * Downloads a photo into the disk cache; the caller holds the photo's fetch lock
+     */
+    @WorkerThread
+    private File download(String remoteRef, File destination, int width, int height) {
+        File temp = new File(diskDir, destination.getName() + ".tmp");
+        try {
+            StorageReference ref = PhotoUploader.storage().getReference(remoteRef);
+            long start = System.currentTimeMillis();
+            StorageMetadata metadata = Tasks.await(ref.getMetadata());
+            Tasks.await(ref.getFile(temp));
+            if (metadata.getMd5Hash() != null && !metadata.getMd5Hash().equals(md5Base64(temp))) {
+                rejectedDownloads.incrementAndGet();
+                temp.delete();
+                Log.w(TAG, "Discarded corrupt download of " + remoteRef);
+                return null;
+            }
+            if (!temp.renameTo(destination)) {
+                temp.delete();
+                return null;
+            }
+            if (metadata.getGeneration() != null) {
+                generations.edit().putString(destination.getName(), metadata.getGeneration()).apply();
+            }
+            validated.add(remoteRef);
+            downloads.incrementAndGet();
+            downloadedBytes.addAndGet(destination.length());
+            Log.d(TAG, "Fetched " + remoteRef + " (" + destination.length() / 1024 + " KB) in "
+                    + (System.currentTimeMillis() - start) + " ms");
+            trimDisk();
+            return new File(ImageUtils.getPhotoPathForSize(destination.getPath(), width, height));
+        } catch (ExecutionException | IOException e) {
+            Log.w(TAG, "Could not fetch " + remoteRef, e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Evicts the least recently used photos, with their stored sizes, until the
+     * disk cache is within its budget
+     */
+    private synchronized void trimDisk() {
+        File[] files = diskDir.listFiles();
+        if (files == null) return;
+        Map<String, Long> bytesByPhoto = new HashMap<>();
+        long total = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(".tmp")) continue; // A download in progress
+            String photo = PhotoGarbageCollector.photoNameOf(file.getName());
+            Long bytes = bytesByPhoto.get(photo);
+            bytesByPhoto.put(photo, (bytes != null ? bytes : 0) + file.length());
+            total += file.length();
+        }
+        if (total <= DISK_BUDGET_BYTES) return;
+
+        List<File> photos = new ArrayList<>();
+        for (String photo : bytesByPhoto.keySet()) {
+            photos.add(new File(diskDir, photo));
+        }
+        Collections.sort(photos, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File photo : photos) {
+            if (total <= DISK_BUDGET_BYTES) break;
+            ImageUtils.deleteProfilePhoto(photo.getPath());
+            generations.edit().remove(photo.getName()).apply();
+            total -= bytesByPhoto.get(photo.getName());
+            diskEvictions.incrementAndGet();
+        }
+    }
+
+    private static String md5Base64(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return Base64.encodeToString(digest.digest(), Base64.NO_WRAP);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class FetchLock {
+        // Fetches holding or waiting on the lock; only changed inside fetchLocks compute calls
+        int users;
+    }
+}
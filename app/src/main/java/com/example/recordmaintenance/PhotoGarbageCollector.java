@@ -0,0 +1,147 @@
+package com.example.recordmaintenance;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds and deletes files in profile_photos that no employee references any more:
+ * photos that were replaced, the stored sizes next to them, and temporary files
+ * left by an interrupted save. A file is kept while its photo's reference count
+ * is above zero. Deletion runs in batches, oldest first, and stops once the byte
+ * budget for the run has been reclaimed; the rest waits for the next run.
+ * Runs on ImageUtils' photo thread through ImageUtils.cleanupUnusedPhotos.
+ */
+public final class PhotoGarbageCollector {
+
+    /** Files younger than this are kept, so a photo whose path is still being saved survives */
+    static final long MIN_ORPHAN_AGE_MS = 60 * 60 * 1000L;
+    static final int BATCH_SIZE = 32;
+    public static final long DEFAULT_BYTE_BUDGET = 64L * 1024 * 1024;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    public static final class Result {
+        public final int scanned;
+        public final int orphans;
+        public final int deleted;
+        public final long reclaimedBytes;
+        /** Orphans left for the next run because the budget ran out */
+        public final int remaining;
+
+        Result(int scanned, int orphans, int deleted, long reclaimedBytes, int remaining) {
+            this.scanned = scanned;
+            this.orphans = orphans;
+            this.deleted = deleted;
+            this.reclaimedBytes = reclaimedBytes;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public String toString() {
+            return "scanned " + scanned + " files, " + orphans + " orphaned, " + deleted + " deleted ("
+                    + reclaimedBytes / 1024 + " KB reclaimed), " + remaining + " left";
+        }
+    }
+
+    public interface Callback {
+        void onComplete(Result result);
+    }
+
+    private final Map<String, Integer> referenceCounts = new HashMap<>();
+    private final boolean referencesComplete;
+
+    /**
+     * @param referencedPaths profilePhotoPath of every employee, or null when they are
+     *                        not all known on this device; then only temporary files and
+     *                        sizes whose photo is gone are collected
+     */
+    public PhotoGarbageCollector(@Nullable Collection<String> referencedPaths) {
+        referencesComplete = referencedPaths != null;
+        if (referencedPaths != null) {
+            for (String path : referencedPaths) {
+                if (path == null || path.isEmpty()) continue;
+                String name = new File(path).getName();
+                Integer count = referenceCounts.get(name);
+                referenceCounts.put(name, count == null ? 1 : count + 1);
+            }
+        }
+    }
+
+    /**
+     * Deletes up to about byteBudget bytes of orphaned files in dir
+     * @param now current wall-clock time, compared with file modification times
+     */
+    @WorkerThread
+    public Result collect(File dir, long now, long byteBudget) {
+        File[] files = dir.listFiles();
+        if (files == null) return new Result(0, 0, 0, 0, 0);
+
+        List<File> orphans = new ArrayList<>();
+        for (File file : files) {
+            if (file.isFile() && now - file.lastModified() >= MIN_ORPHAN_AGE_MS && isOrphan(file, dir)) {
+                orphans.add(file);
+            }
+        }
+        // Oldest first, so a run cut short by the budget frees the longest-dead files
+        Collections.sort(orphans, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+
+        int deleted = 0;
+        long reclaimed = 0;
+        int next = 0;
+        while (next < orphans.size() && reclaimed < byteBudget) {
+            int end = Math.min(orphans.size(), next + BATCH_SIZE);
+            for (; next < end; next++) {
+                File orphan = orphans.get(next);
+                long length = orphan.length();
+                if (orphan.delete()) {
+                    deleted++;
+                    reclaimed += length;
+                }
+            }
+        }
+        return new Result(files.length, orphans.size(), deleted, reclaimed, orphans.size() - next);
+    }
+
+    /**
+     * Number of employees whose photo the file is, or a size of
+     */
+    int referenceCount(String fileName) {
+        Integer count = referenceCounts.get(photoNameOf(fileName));
+        return count == null ? 0 : count;
+    }
+
+    private boolean isOrphan(File file, File dir) {
+        String name = file.getName();
+        if (name.endsWith(TEMP_SUFFIX)) return true;
+        String photoName = photoNameOf(name);
+        if (!photoName.equals(name) && !new File(dir, photoName).exists()) {
+            // A stored size whose photo was deleted
+            return true;
+        }
+        return referencesComplete && referenceCount(name) == 0;
+    }
+
+    /**
+     * Name of the photo a file belongs to: the name itself for a photo, and the
+     * photo's name for one of its stored sizes
+     */
+    static String photoNameOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String stem = dot >= 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot >= 0 ? fileName.substring(dot) : "";
+        for (ImageUtils.PhotoSize size : ImageUtils.PhotoSize.values()) {
+            if (!size.suffix.isEmpty() && stem.endsWith(size.suffix)) {
+                return stem.substring(0, stem.length() - size.suffix.length()) + extension;
+            }
+        }
+        return fileName;
+    }
+}
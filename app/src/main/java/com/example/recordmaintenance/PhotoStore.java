@@ -0,0 +1,117 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content-addressed profile photos: a photo is stored once, named after a hash of
+ * its pixels, however many employees use it. Reference counts kept on the device
+ * decide when the last employee has let go of a photo and its files can be deleted.
+ * Photos saved before this are named empId_timestamp.jpg and have no count; they
+ * are deleted as soon as they are released, as before.
+ * Only called from ImageUtils' photo thread.
+ */
+final class PhotoStore {
+
+    private static final String PREFS_NAME = "photo_store";
+    private static final String EXTENSION = ".jpg";
+    // 128 bits of SHA-256, as lowercase hex
+    private static final int HASH_LENGTH = 32;
+
+    private final File dir;
+    private final SharedPreferences refCounts;
+
+    PhotoStore(Context context) {
+        dir = ImageUtils.getProfilePhotosDirectory(context);
+        refCounts = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    File fileFor(String hash) {
+        return new File(dir, hash + EXTENSION);
+    }
+
+    /**
+     * Adds a reference to a photo
+     * @param newFile whether the photo's file was just written, which resets a count
+     *                left behind by files deleted through photo cleanup
+     * @return the new reference count
+     */
+    int acquire(String hash, boolean newFile) {
+        int count = newFile ? 1 : refCounts.getInt(hash, 0) + 1;
+        refCounts.edit().putInt(hash, count).apply();
+        return count;
+    }
+
+    /**
+     * Drops a reference to a photo
+     * @return whether that was the last one, so the photo's files can be deleted
+     */
+    boolean release(String hash) {
+        int count = refCounts.getInt(hash, 0) - 1;
+        if (count <= 0) {
+            refCounts.edit().remove(hash).apply();
+            return true;
+        }
+        refCounts.edit().putInt(hash, count).apply();
+        return false;
+    }
+
+    /**
+     * Hash of a photo's pixels and dimensions; the same image normalized the same way
+     * always gets the same hash, whatever file or camera it came from
+     */
+    @WorkerThread
+    static String contentHash(Bitmap bitmap) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        digest.update(ByteBuffer.allocate(8).putInt(width).putInt(height).array());
+        // A row at a time, so hashing needs no copy of the whole image
+        int[] row = new int[width];
+        ByteBuffer rowBytes = ByteBuffer.allocate(width * 4);
+        for (int y = 0; y < height; y++) {
+            bitmap.getPixels(row, 0, width, 0, y, width, 1);
+            rowBytes.clear();
+            rowBytes.asIntBuffer().put(row);
+            digest.update(rowBytes.array());
+        }
+        return toHex(digest.digest(), HASH_LENGTH);
+    }
+
+    /**
+     * Content hash a photo is stored under, or null for a photo saved before
+     * photos were content-addressed
+     */
+    static String hashOf(String photoPath) {
+        if (photoPath == null) return null;
+        String name = new File(photoPath).getName();
+        if (name.length() != HASH_LENGTH + EXTENSION.length() || !name.endsWith(EXTENSION)) return null;
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            char c = name.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return null;
+        }
+        return name.substring(0, HASH_LENGTH);
+    }
+
+    static String toHex(byte[] bytes, int length) {
+        char[] hex = new char[length];
+        for (int i = 0; i < length; i++) {
+            int b = bytes[i / 2] & 0xff;
+            hex[i] = Character.forDigit(i % 2 == 0 ? b >> 4 : b & 0xf, 16);
+        }
+        return new String(hex);
+    }
+}
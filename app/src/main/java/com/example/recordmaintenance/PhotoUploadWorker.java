@@ -0,0 +1,135 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.storage.StorageException;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Uploads an employee's profile photo in the background and records its Storage
+ * path on the employee, so other devices can show it. Queued through WorkManager,
+ * so uploads survive the app being closed, wait for a network connection and are
+ * retried with exponential backoff; a retry resumes the interrupted upload.
+ * Queuing a new photo for an employee replaces a pending upload of the previous one.
+ */
+public class PhotoUploadWorker extends Worker {
+
+    private static final String TAG = "PhotoUploadWorker";
+    private static final String KEY_UID = "uid";
+    private static final String KEY_PHOTO_PATH = "photoPath";
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long RECORD_TIMEOUT_SECONDS = 60;
+
+    public PhotoUploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Queues the upload of an employee's new photo
+     */
+    public static void enqueue(Context context, String uid, String photoPath) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(PhotoUploadWorker.class)
+                .setInputData(new Data.Builder()
+                        .putString(KEY_UID, uid)
+                        .putString(KEY_PHOTO_PATH, photoPath)
+                        .build())
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, INITIAL_BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(workName(uid), ExistingWorkPolicy.REPLACE, request);
+    }
+
+    /**
+     * Drops a pending upload for an employee whose photo was removed
+     */
+    public static void cancel(Context context, String uid) {
+        WorkManager.getInstance(context).cancelUniqueWork(workName(uid));
+    }
+
+    private static String workName(String uid) {
+        return "photo-upload-" + uid;
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String uid = getInputData().getString(KEY_UID);
+        String photoPath = getInputData().getString(KEY_PHOTO_PATH);
+        if (uid == null || photoPath == null) return Result.failure();
+        File photo = new File(photoPath);
+        if (!photo.exists()) {
+            // Replaced or removed before it could be uploaded
+            Log.w(TAG, "Photo to upload no longer exists: " + photoPath);
+            return Result.failure();
+        }
+
+        PhotoUploader uploader = new PhotoUploader(getApplicationContext());
+        String remotePath;
+        try {
+            remotePath = uploader.upload(photo);
+        } catch (StorageException e) {
+            // A session that cannot be resumed any more is retried from the beginning
+            boolean retry = e.getIsRecoverableException() || uploader.discardSession(photo);
+            Log.w(TAG, "Upload of " + photoPath + " failed (attempt " + (getRunAttemptCount() + 1)
+                    + (retry ? ", will retry" : "") + ")", e);
+            return retry && getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+
+        return recordRemotePath(uid, photoPath, remotePath) ? Result.success() : Result.retry();
+    }
+
+    /**
+     * @return whether the employee needs nothing more, so the work is done
+     */
+    private boolean recordRemotePath(String uid, String photoPath, String remotePath) {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> error = new AtomicReference<>();
+        Repositories.employees(getApplicationContext()).updateEmployeeProfilePhoto(uid, photoPath, remotePath,
+                new EmployeeRepository.UpdateCallback() {
+                    @Override
+                    public void onSuccess(String message) {
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        error.set(message);
+                        done.countDown();
+                    }
+                });
+        try {
+            if (!done.await(RECORD_TIMEOUT_SECONDS, TimeUnit.SECONDS)) return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (error.get() != null) {
+            Log.w(TAG, "Could not record uploaded photo for " + uid + ": " + error.get());
+            // A different photo now has its own upload queued
+            return EmployeeRepository.PHOTO_CHANGED.equals(error.get());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.File;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Uploads profile photos to Firebase Storage, under profile_photos/ with the local
+ * file name. Uploads are resumable: Storage sends the file in chunks, and the
+ * session of an upload that is interrupted is kept, so the next attempt continues
+ * where it stopped instead of starting again. Photos are already stored as
+ * downsampled JPEG, so they are uploaded as they are.
+ * Set STORAGE_EMULATOR_HOST (see app/build.gradle) to upload to the Storage emulator.
+ */
+final class PhotoUploader {
+
+    private static final String TAG = "PhotoUploader";
+    static final String REMOTE_DIR = "profile_photos/";
+    private static final String PREFS_NAME = "photo_uploads";
+    private static final int STORAGE_EMULATOR_PORT = 9199;
+
+    private static FirebaseStorage storage;
+
+    private final SharedPreferences sessions;
+
+    PhotoUploader(Context context) {
+        sessions = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    static synchronized FirebaseStorage storage() {
+        if (storage == null) {
+            storage = FirebaseStorage.getInstance();
+            if (!BuildConfig.STORAGE_EMULATOR_HOST.isEmpty()) {
+                storage.useEmulator(BuildConfig.STORAGE_EMULATOR_HOST, STORAGE_EMULATOR_PORT);
+            }
+        }
+        return storage;
+    }
+
+    static String remotePathFor(File photo) {
+        return REMOTE_DIR + photo.getName();
+    }
+
+    /**
+     * Uploads a photo, continuing an earlier interrupted upload of it if there is one
+     * @return the photo's Storage path
+     * @throws StorageException if the upload failed; isRecoverable tells whether to try again
+     */
+    @WorkerThread
+    String upload(File photo) throws StorageException, InterruptedException {
+        String remotePath = remotePathFor(photo);
+        StorageReference ref = storage().getReference(remotePath);
+
+        // Content-addressed photos are the same bytes whichever device uploaded them
+        if (PhotoStore.hashOf(photo.getPath()) != null && isUploaded(ref, photo.length())) {
+            Log.d(TAG, remotePath + " already uploaded");
+            return remotePath;
+        }
+
+        String savedSession = sessions.getString(remotePath, null);
+        Uri file = Uri.fromFile(photo);
+        StorageMetadata metadata = new StorageMetadata.Builder().setContentType("image/jpeg").build();
+        UploadTask task = savedSession != null
+                ? ref.putFile(file, metadata, Uri.parse(savedSession))
+                : ref.putFile(file, metadata);
+        // The session exists once the first chunk has been accepted
+        task.addOnProgressListener(Runnable::run, snapshot -> {
+            Uri session = snapshot.getUploadSessionUri();
+            if (session != null && !session.toString().equals(sessions.getString(remotePath, null))) {
+                sessions.edit().putString(remotePath, session.toString()).apply();
+            }
+        });
+
+        long start = System.currentTimeMillis();
+        try {
+            Tasks.await(task);
+        } catch (ExecutionException e) {
+            throw asStorageException(e);
+        }
+        sessions.edit().remove(remotePath).apply();
+        Log.d(TAG, "Uploaded " + remotePath + " (" + photo.length() / 1024 + " KB"
+                + (savedSession != null ? ", resumed" : "") + ") in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return remotePath;
+    }
+
+    /**
+     * Forgets the interrupted upload of a photo, so the next attempt starts from the beginning
+     * @return whether there was one
+     */
+    boolean discardSession(File photo) {
+        String remotePath = remotePathFor(photo);
+        if (!sessions.contains(remotePath)) return false;
+        sessions.edit().remove(remotePath).apply();
+        return true;
+    }
+
+    private static boolean isUploaded(StorageReference ref, long length)
+            throws StorageException, InterruptedException {
+        try {
+            return Tasks.await(ref.getMetadata()).getSizeBytes() == length;
+        } catch (ExecutionException e) {
+            StorageException storageException = asStorageException(e);
+            if (storageException.getErrorCode() == StorageException.ERROR_OBJECT_NOT_FOUND) {
+                return false;
+            }
+            throw storageException;
+        }
+    }
+
+    private static StorageException asStorageException(ExecutionException e) {
+        return e.getCause() instanceof StorageException
+                ? (StorageException) e.getCause()
+                : StorageException.fromException(e.getCause() != null ? e.getCause() : e);
+    }
+}
@@ -169,16 +169,20 @@ public class ProfilePrintAdapter extends PrintDocumentAdapter {
     }
 
     private int drawProfilePhoto(Canvas canvas, Paint paint, int pageWidth, int startY) {
-        String photoPath = employee.getProfilePhotoPath();
-        if (photoPath != null && ImageUtils.isPhotoExists(photoPath)) {
+        // Printing runs on the main thread, so only a copy already on the device is used
+        File photoFile = PhotoCache.get(context).getCachedFile(
+                employee.getProfilePhotoPath(), employee.getProfilePhotoRef(), PHOTO_SIZE, PHOTO_SIZE);
+        if (photoFile != null) {
             try {
-                Bitmap bitmap = BitmapFactory.decodeFile(photoPath);
+                Bitmap bitmap = ImageUtils.decodeSampledBitmap(photoFile.getPath(), PHOTO_SIZE, PHOTO_SIZE,
+                        Bitmap.Config.ARGB_8888);
                 if (bitmap != null) {
-                    // Scale and center the photo
-                    Bitmap scaledBitmap = Bitmap.createScaledBitmap(bitmap, PHOTO_SIZE, PHOTO_SIZE, true);
-
+                    // Scaled and centred while drawing, so no intermediate bitmap is allocated
                     int photoX = (pageWidth - PHOTO_SIZE) / 2;
-                    canvas.drawBitmap(scaledBitmap, photoX, startY, paint);
+                    paint.setFilterBitmap(true);
+                    canvas.drawBitmap(bitmap, ImageUtils.centerSquare(bitmap),
+                            new Rect(photoX, startY, photoX + PHOTO_SIZE, startY + PHOTO_SIZE), paint);
+                    paint.setFilterBitmap(false);
 
                     // Draw border around photo
                     paint.setColor(Color.LTGRAY);
@@ -187,8 +191,7 @@ public class ProfilePrintAdapter extends PrintDocumentAdapter {
                     canvas.drawRect(photoX, startY, photoX + PHOTO_SIZE, startY + PHOTO_SIZE, paint);
                     paint.setStyle(Paint.Style.FILL);
 
-                    scaledBitmap.recycle();
-                    bitmap.recycle();
+                    ImageUtils.releaseBitmap(bitmap);
 
                     return startY + PHOTO_SIZE + SECTION_SPACING;
                 }
@@ -36,7 +36,7 @@ public class ResetPasswordActivity extends AppCompatActivity {
         // Intent data (optional, used for title only)
         userType = getIntent().getStringExtra("userType");
 
-        authRepository = new AuthRepository(this);
+        authRepository = Repositories.auth(this);
 
         initializeViews();
         setupToolbar();
@@ -0,0 +1,231 @@
+package com.example.recordmaintenance;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.exifinterface.media.ExifInterface;
+
+import com.github.chrisbanes.photoview.OnMatrixChangedListener;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sharp zooming into photos far larger than the screen. The PhotoView below shows a
+ * low-resolution base layer; this view draws over it only the tiles visible at the
+ * current zoom, decoded with BitmapRegionDecoder at the sample size that zoom needs.
+ * Tiles are decoded on a background thread and kept in an LRU bounded by bytes, so
+ * memory stays bounded however large the photo is.
+ */
+final class TiledImageOverlay extends View implements OnMatrixChangedListener {
+
+    private static final String TAG = "TiledImageOverlay";
+    // Side of a tile in decoded pixels, whatever its sample size
+    private static final int TILE_SIZE = 512;
+    // Photos are tiled only if they are at least this many times larger than the screen
+    private static final int MIN_TILING_FACTOR = 2;
+
+    public interface BaseLayerCallback {
+        /** The base layer to show below the tiles, or null if the photo is not worth tiling */
+        void onBaseLayerReady(@Nullable Bitmap base);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<String, Bitmap> tiles;
+    private final Set<String> pendingTiles = new HashSet<>();
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF displayRect = new RectF();
+    private final Rect tileRect = new Rect();
+    private final RectF tileDestination = new RectF();
+
+    private BitmapRegionDecoder decoder;
+    private int sourceWidth;
+    private int sourceHeight;
+    private int baseSampleSize;
+    // What onDraw last asked for, read by tile decodes to skip tiles scrolled away from
+    private volatile int visibleSampleSize;
+    private volatile Rect visibleSourceRect = new Rect();
+
+    TiledImageOverlay(Context context) {
+        super(context);
+        int maxBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 8, 24L * 1024 * 1024);
+        tiles = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap tile) {
+                return tile.getAllocationByteCount();
+            }
+        };
+    }
+
+    /**
+     * Opens a photo for tiling and decodes its base layer at about the screen's size.
+     * Photos that are not much larger than the screen, or that are stored rotated
+     * by EXIF, which region decoding ignores, get a null base layer and no tiles.
+     * The callback runs on the main thread.
+     */
+    void open(String path, int screenWidth, int screenHeight, BaseLayerCallback callback) {
+        executor.execute(() -> {
+            Bitmap base = null;
+            try {
+                BitmapFactory.Options bounds = new BitmapFactory.Options();
+                bounds.inJustDecodeBounds = true;
+                BitmapFactory.decodeFile(path, bounds);
+                boolean large = Math.max(bounds.outWidth, bounds.outHeight)
+                        >= MIN_TILING_FACTOR * Math.max(screenWidth, screenHeight);
+                ExifInterface exif = large ? new ExifInterface(path) : null;
+                if (exif != null && exif.getRotationDegrees() == 0 && !exif.isFlipped()) {
+                    BitmapRegionDecoder regionDecoder = newDecoder(path);
+                    // Only ever on screen, like the tiles
+                    base = ImageUtils.decodeSampledBitmap(path, screenWidth, screenHeight,
+                            Bitmap.Config.RGB_565);
+                    if (base != null) {
+                        int sampleSize = ImageUtils.calculateInSampleSize(
+                                bounds.outWidth, bounds.outHeight, screenWidth, screenHeight);
+                        Bitmap opened = base;
+                        mainHandler.post(() -> {
+                            decoder = regionDecoder;
+                            sourceWidth = bounds.outWidth;
+                            sourceHeight = bounds.outHeight;
+                            baseSampleSize = sampleSize;
+                            callback.onBaseLayerReady(opened);
+                        });
+                        return;
+                    }
+                    regionDecoder.recycle();
+                }
+            } catch (IOException | OutOfMemoryError e) {
+                Log.w(TAG, "Could not open " + path + " for tiling", e);
+            }
+            mainHandler.post(() -> callback.onBaseLayerReady(null));
+        });
+    }
+
+    /**
+     * Zoom at which one source pixel covers one screen pixel, relative to the fitted photo
+     */
+    float getFullResolutionScale(int viewWidth, int viewHeight) {
+        if (sourceWidth == 0 || viewWidth == 0 || viewHeight == 0) return 1f;
+        float fitted = Math.min((float) viewWidth / sourceWidth, (float) viewHeight / sourceHeight);
+        return 1f / fitted;
+    }
+
+    @Override
+    public void onMatrixChanged(RectF rect) {
+        displayRect.set(rect);
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        if (decoder == null || displayRect.isEmpty()) return;
+        float scale = displayRect.width() / sourceWidth; // Screen pixels per source pixel
+        int sampleSize = sampleSizeFor(scale);
+        visibleSampleSize = sampleSize;
+        // The base layer is as sharp as this zoom needs
+        if (sampleSize >= baseSampleSize) return;
+
+        Rect visible = new Rect(
+                Math.max(0, (int) (-displayRect.left / scale)),
+                Math.max(0, (int) (-displayRect.top / scale)),
+                Math.min(sourceWidth, (int) Math.ceil((getWidth() - displayRect.left) / scale)),
+                Math.min(sourceHeight, (int) Math.ceil((getHeight() - displayRect.top) / scale)));
+        visibleSourceRect = visible;
+        int tileSource = TILE_SIZE * sampleSize;
+        for (int row = visible.top / tileSource; row * tileSource < visible.bottom; row++) {
+            for (int col = visible.left / tileSource; col * tileSource < visible.right; col++) {
+                tileRect.set(col * tileSource, row * tileSource,
+                        Math.min(sourceWidth, (col + 1) * tileSource),
+                        Math.min(sourceHeight, (row + 1) * tileSource));
+                String key = sampleSize + ":" + col + ":" + row;
+                Bitmap tile = tiles.get(key);
+                if (tile == null) {
+                    // The base layer shows through until the tile is decoded
+                    requestTile(key, new Rect(tileRect), sampleSize);
+                    continue;
+                }
+                tileDestination.set(
+                        displayRect.left + tileRect.left * scale,
+                        displayRect.top + tileRect.top * scale,
+                        displayRect.left + tileRect.right * scale,
+                        displayRect.top + tileRect.bottom * scale);
+                canvas.drawBitmap(tile, null, tileDestination, paint);
+            }
+        }
+    }
+
+    private void requestTile(String key, Rect region, int sampleSize) {
+        if (!pendingTiles.add(key)) return;
+        BitmapRegionDecoder regionDecoder = decoder;
+        executor.execute(() -> {
+            Bitmap tile = null;
+            // Skips tiles the user has zoomed or panned away from while this one waited
+            if (sampleSize == visibleSampleSize && Rect.intersects(region, visibleSourceRect)) {
+                BitmapFactory.Options options = new BitmapFactory.Options();
+                options.inSampleSize = sampleSize;
+                options.inPreferredConfig = Bitmap.Config.RGB_565;
+                try {
+                    tile = regionDecoder.decodeRegion(region, options);
+                } catch (IllegalArgumentException | IllegalStateException | OutOfMemoryError e) {
+                    Log.w(TAG, "Could not decode tile " + key, e);
+                }
+            }
+            Bitmap decoded = tile;
+            mainHandler.post(() -> {
+                pendingTiles.remove(key);
+                if (decoded != null && decoder == regionDecoder) {
+                    tiles.put(key, decoded);
+                    invalidate();
+                }
+            });
+        });
+    }
+
+    /**
+     * Largest power-of-two sample size that still gives at least one decoded pixel per screen pixel
+     */
+    private static int sampleSizeFor(float scale) {
+        int sampleSize = 1;
+        while (sampleSize * 2 * scale <= 1f) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static BitmapRegionDecoder newDecoder(String path) throws IOException {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                ? BitmapRegionDecoder.newInstance(path)
+                : BitmapRegionDecoder.newInstance(path, false);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        BitmapRegionDecoder regionDecoder = decoder;
+        decoder = null;
+        tiles.evictAll();
+        // After any decode still queued, which holds the decoder
+        if (regionDecoder != null) {
+            executor.execute(regionDecoder::recycle);
+        }
+        executor.shutdown();
+    }
+}
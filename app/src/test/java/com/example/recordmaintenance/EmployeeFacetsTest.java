@@ -0,0 +1,64 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static com.example.recordmaintenance.TestEmployees.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks the incrementally maintained EmployeeFacets against a full recount.
+ */
+public class EmployeeFacetsTest {
+
+    @Test
+    public void facets_followIncrementalChanges() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeFacets facets = new EmployeeFacets(store);
+        Random random = new Random(29);
+        addEmployees(store, 100, random);
+        facets.getDepartmentFacets(); // Build before the deltas arrive
+
+        applyRandomChanges(store, 400, 150, random);
+
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (Employee e : store.getAll()) {
+            if (e.getDepartment() != null && !e.getDepartment().trim().isEmpty()) {
+                expected.merge(e.getDepartment(), 1, Integer::sum);
+            }
+            min = Math.min(min, e.getSalary());
+            max = Math.max(max, e.getSalary());
+        }
+
+        List<EmployeeFacets.Facet> departments = facets.getDepartmentFacets();
+        assertEquals(expected.size(), departments.size());
+        int i = 0;
+        for (String department : expected.keySet()) {
+            assertEquals(department, departments.get(i).value);
+            assertEquals((int) expected.get(department), departments.get(i).count);
+            i++;
+        }
+        assertEquals(min, facets.getSalaryBounds()[0], 0.0);
+        assertEquals(max, facets.getSalaryBounds()[1], 0.0);
+    }
+
+    @Test
+    public void facet_labelShowsCount() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeFacets facets = new EmployeeFacets(store);
+        for (int i = 0; i < 3; i++) {
+            Employee e = new Employee();
+            e.setUid("uid-" + i);
+            e.setDepartment("Engineering");
+            store.upsert(e);
+        }
+
+        assertEquals("Engineering (3)", facets.getDepartmentFacets().get(0).toString());
+        assertTrue(facets.getDesignationFacets().isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.example.recordmaintenance.TestEmployees.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks EmployeeFilterIndex against a per-employee evaluation of the criteria.
+ */
+public class EmployeeFilterIndexTest {
+
+    @Test
+    public void select_matchesPerEmployeeEvaluation() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeFilterIndex index = new EmployeeFilterIndex(store, new EmployeeSortIndex(store));
+        Random random = new Random(17);
+        addEmployees(store, 400, random);
+
+        assertMatchesEvaluation(store, index, random);
+    }
+
+    @Test
+    public void select_followsIncrementalChanges() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeFilterIndex index = new EmployeeFilterIndex(store, new EmployeeSortIndex(store));
+        Random random = new Random(23);
+        addEmployees(store, 100, random);
+        index.select(new EmployeeAdapter.FilterCriteria()); // Build before the deltas arrive
+
+        applyRandomChanges(store, 300, 150, random);
+
+        assertMatchesEvaluation(store, index, random);
+    }
+
+    private static void assertMatchesEvaluation(EmployeeStore store, EmployeeFilterIndex index, Random random) {
+        for (int i = 0; i < 100; i++) {
+            EmployeeAdapter.FilterCriteria criteria = new EmployeeAdapter.FilterCriteria();
+            if (random.nextBoolean()) criteria.departmentFilter = pick(random, DEPARTMENTS, "Legal");
+            if (random.nextBoolean()) criteria.designationFilter = pick(random, DESIGNATIONS, "Director");
+            if (random.nextBoolean()) {
+                criteria.minSalary = 20000 + random.nextInt(50000);
+                criteria.maxSalary = criteria.minSalary + random.nextInt(60000);
+            }
+
+            assertEquals(rowsMatching(store, e -> matches(e, criteria)), index.select(criteria));
+        }
+    }
+
+    private static boolean matches(Employee e, EmployeeAdapter.FilterCriteria criteria) {
+        String department = e.getDepartment() != null ? e.getDepartment() : "";
+        String designation = e.getDesignation() != null ? e.getDesignation() : "";
+        return (criteria.departmentFilter.isEmpty() || department.equals(criteria.departmentFilter))
+                && (criteria.designationFilter.isEmpty() || designation.equals(criteria.designationFilter))
+                && e.getSalary() >= criteria.minSalary && e.getSalary() <= criteria.maxSalary;
+    }
+
+    private static String pick(Random random, String[] values, String unknown) {
+        String value = random.nextInt(5) == 0 ? unknown : values[random.nextInt(values.length)];
+        return value != null ? value : unknown;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.text.NumberFormat;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the pre-formatted row models show what the adapter used to format per bind.
+ */
+public class EmployeeRowModelTest {
+
+    @Test
+    public void salary_matchesFormerFormatting() {
+        NumberFormat format = EmployeeRowModel.newSalaryFormat();
+        double[] salaries = {0, 999.5, 1000.49, 45000, 1234567.5, 75000.75};
+        for (double salary : salaries) {
+            assertEquals(String.format("%.0f", salary), format.format(salary));
+        }
+    }
+
+    @Test
+    public void from_fillsMissingValues() {
+        EmployeeStore store = new EmployeeStore();
+        Employee employee = new Employee();
+        employee.setUid("uid-1");
+        employee.setEmpName("Asha");
+        employee.setDepartment("HR");
+        employee.setSalary(52000);
+        store.upsert(employee);
+
+        EmployeeRowModel model = EmployeeRowModel.from(store, store.getRow("uid-1"),
+                EmployeeRowModel.newSalaryFormat());
+        assertEquals("Asha", model.name);
+        assertEquals("HR", model.department);
+        assertEquals("₹52000", model.salary);
+        assertEquals("N/A", model.empId);
+        assertEquals("N/A", model.city);
+        assertEquals("N/A", model.email);
+
+        store.remove("uid-1");
+        assertNull(EmployeeRowModel.from(store, 0, EmployeeRowModel.newSalaryFormat()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static com.example.recordmaintenance.TestEmployees.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks EmployeeSearchIndex against a brute-force substring scan.
+ */
+public class EmployeeSearchIndexTest {
+
+    private static final String[] QUERIES = {"a", "an", "ann", "eng", "ver", "man25", "1", "@example", "sal",
+            "ngh", "xyz", "rao@", "  Asha ", "Intern", "ee"};
+
+    @Test
+    public void search_matchesBruteForce() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeSearchIndex index = new EmployeeSearchIndex(store);
+        Random random = new Random(42);
+        addEmployees(store, 300, random);
+
+        assertMatchesBruteForce(store, index);
+    }
+
+    @Test
+    public void search_followsIncrementalChanges() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeSearchIndex index = new EmployeeSearchIndex(store);
+        Random random = new Random(7);
+        addEmployees(store, 100, random);
+        index.search("a", false); // Build before the deltas arrive
+
+        applyRandomChanges(store, 200, 150, random);
+
+        assertMatchesBruteForce(store, index);
+    }
+
+    @Test
+    public void search_blankQueryMatchesNothing() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeSearchIndex index = new EmployeeSearchIndex(store);
+        store.upsert(employee(1, new Random(1)));
+
+        assertTrue(index.search("   ", true).isEmpty());
+    }
+
+    private static void assertMatchesBruteForce(EmployeeStore store, EmployeeSearchIndex index) {
+        for (String query : QUERIES) {
+            for (boolean includeJobFields : new boolean[]{false, true}) {
+                String q = query.toLowerCase().trim();
+                BitSet expected = rowsMatching(store, e ->
+                        contains(e.getEmpName(), q) || contains(e.getEmpEmail(), q) || contains(e.getEmpId(), q)
+                                || includeJobFields && (contains(e.getDesignation(), q)
+                                || contains(e.getDepartment(), q)));
+                assertEquals("query '" + query + "' job=" + includeJobFields,
+                        expected, index.search(query, includeJobFields));
+            }
+        }
+    }
+
+    private static boolean contains(String field, String q) {
+        return field != null && field.toLowerCase().contains(q);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for EmployeeSnapshotMapper.
+ */
+public class EmployeeSnapshotMapperTest {
+
+    @Test
+    public void fromMap_mapsAllFields() {
+        Employee e = EmployeeSnapshotMapper.fromMap("uid-1", record(1));
+
+        assertEquals("uid-1", e.getUid());
+        assertEquals("MAN251001", e.getEmpId());
+        assertEquals("Employee 1", e.getEmpName());
+        assertEquals("employee1@example.com", e.getEmpEmail());
+        assertEquals("employee", e.getRole());
+        assertEquals("Software Engineer", e.getDesignation());
+        assertEquals("Engineering", e.getDepartment());
+        assertEquals(51000.0, e.getSalary(), 0.0);
+        assertEquals("2024-01-15", e.getJoinedDate());
+        assertEquals("Line 1", e.getAddressLine1());
+        assertEquals("Line 2", e.getAddressLine2());
+        assertEquals("Pune", e.getCity());
+        assertEquals("Maharashtra", e.getState());
+        assertEquals("India", e.getCountry());
+        assertNull(e.getProfilePhotoPath());
+        assertEquals("profile_photos/photo1.jpg", e.getProfilePhotoRef());
+        assertTrue(e.isPasswordChanged());
+    }
+
+    @Test
+    public void fromMap_toleratesMissingAndMistypedFields() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", "Only Name");
+        fields.put("salary", "not a number");
+        fields.put("empId", 1001L);
+
+        Employee e = EmployeeSnapshotMapper.fromMap("uid-2", fields);
+
+        assertEquals("Only Name", e.getEmpName());
+        assertEquals(0.0, e.getSalary(), 0.0);
+        assertEquals("1001", e.getEmpId());
+        assertFalse(e.isPasswordChanged());
+        assertNull(e.getDepartment());
+    }
+
+    @Test
+    public void fromMap_acceptsDoubleSalary() {
+        Map<String, Object> fields = record(2);
+        fields.put("salary", 45250.5);
+
+        assertEquals(45250.5, EmployeeSnapshotMapper.fromMap("uid", fields).getSalary(), 0.0);
+    }
+
+    /**
+     * Builds a record shaped like the map Firebase returns for users/{uid}
+     */
+    private static Map<String, Object> record(int i) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("uid", "uid-" + i);
+        fields.put("empId", String.format("MAN25%04d", 1000 + i));
+        fields.put("profilePhotoRef", "profile_photos/photo" + i + ".jpg");
+        fields.put("name", "Employee " + i);
+        fields.put("email", "employee" + i + "@example.com");
+        fields.put("role", "employee");
+        fields.put("designation", "Software Engineer");
+        fields.put("department", "Engineering");
+        fields.put("salary", 50000L + i * 1000L);
+        fields.put("joinedDate", "2024-01-15");
+        fields.put("addressLine1", "Line 1");
+        fields.put("addressLine2", "Line 2");
+        fields.put("city", "Pune");
+        fields.put("state", "Maharashtra");
+        fields.put("country", "India");
+        fields.put("passwordChanged", true);
+        fields.put("createdAt", "2024-01-15T10:00:00Z");
+        fields.put("createdBy", "admin-uid");
+        return fields;
+    }
+}
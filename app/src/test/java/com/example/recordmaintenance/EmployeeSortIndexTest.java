@@ -0,0 +1,136 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.recordmaintenance.TestEmployees.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks EmployeeSortIndex against a stable comparator sort of the same rows.
+ */
+public class EmployeeSortIndexTest {
+
+    @Test
+    public void order_matchesComparatorSort() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeSortIndex index = new EmployeeSortIndex(store);
+        Random random = new Random(3);
+        addEmployees(store, 500, random);
+        for (int i = 0; i < 60; i++) {
+            store.remove("uid-" + random.nextInt(500));
+        }
+
+        // Dense subsets walk the permutation, sparse ones sort ranks
+        for (int density : new int[]{1, 2, 50}) {
+            BitSet rows = rowsMatching(store, e -> random.nextInt(density) == 0);
+            for (EmployeeAdapter.SortCriteria criteria : EmployeeAdapter.SortCriteria.values()) {
+                assertOrder(store, index, criteria, rows, rows.cardinality());
+            }
+        }
+    }
+
+    @Test
+    public void order_followsStoreChanges() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeSortIndex index = new EmployeeSortIndex(store);
+        Random random = new Random(11);
+        addEmployees(store, 50, random);
+        BitSet all = new BitSet();
+        all.set(0, store.getRowCount());
+        index.order(EmployeeAdapter.SortCriteria.SALARY_ASC, all, store.size());
+
+        Employee changed = employee(7, random);
+        changed.setSalary(-1);
+        store.upsert(changed);
+
+        int[] order = index.order(EmployeeAdapter.SortCriteria.SALARY_ASC, all, store.size());
+        assertEquals("uid-7", store.get(order[0]).getUid());
+    }
+
+    @Test
+    public void order_matchesComparatorSortAfterDeltas() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeSortIndex index = new EmployeeSortIndex(store);
+        Random random = new Random(29);
+        addEmployees(store, 200, random);
+        BitSet all = new BitSet();
+        all.set(0, store.getRowCount());
+        // Build every permutation, so the deltas below move rows in place
+        for (EmployeeAdapter.SortCriteria criteria : EmployeeAdapter.SortCriteria.values()) {
+            index.order(criteria, all, store.size());
+        }
+
+        applyRandomChanges(store, 300, 260, random);
+
+        // All rows walk the permutations, a few rows sort the recomputed ranks
+        for (int density : new int[]{1, 40}) {
+            BitSet rows = rowsMatching(store, e -> random.nextInt(density) == 0);
+            for (EmployeeAdapter.SortCriteria criteria : EmployeeAdapter.SortCriteria.values()) {
+                assertOrder(store, index, criteria, rows, rows.cardinality());
+            }
+        }
+    }
+
+    @Test
+    public void compare_withEmployeeMatchesRowComparison() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeSortIndex index = new EmployeeSortIndex(store);
+        Random random = new Random(31);
+        addEmployees(store, 60, random);
+
+        for (EmployeeAdapter.SortCriteria criteria : EmployeeAdapter.SortCriteria.values()) {
+            for (int row1 = 0; row1 < store.getRowCount(); row1 += 7) {
+                for (int row2 = 0; row2 < store.getRowCount(); row2++) {
+                    assertEquals(criteria + " " + row1 + " " + row2,
+                            Integer.signum(index.compare(criteria, row1, row2)),
+                            Integer.signum(index.compare(criteria, row1, store.get(row2))));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void joinedDayRange_matchesParsedDates() {
+        EmployeeStore store = new EmployeeStore();
+        EmployeeSortIndex index = new EmployeeSortIndex(store);
+        Random random = new Random(19);
+        for (int i = 0; i < 300; i++) {
+            Employee e = employee(i, random);
+            // Mix picker and ISO formats, plus unparsable text
+            int day = 1 + random.nextInt(28);
+            int month = 1 + random.nextInt(12);
+            e.setJoinedDate(random.nextInt(10) == 0 ? "unknown"
+                    : random.nextBoolean() ? String.format("%02d/%02d/2023", day, month)
+                    : String.format("2023-%02d-%02d", month, day));
+            store.upsert(e);
+        }
+
+        int from = JoinedDates.ofDate(2023, 3, 10);
+        int to = JoinedDates.ofDate(2023, 8, 31);
+        BitSet expected = rowsMatching(store, e -> {
+            int day = JoinedDates.toEpochDay(e.getJoinedDate());
+            return day != JoinedDates.UNKNOWN && day >= from && day <= to;
+        });
+        assertEquals(expected, index.joinedDayRange(from, to));
+    }
+
+    private static void assertOrder(EmployeeStore store, EmployeeSortIndex index,
+                                    EmployeeAdapter.SortCriteria criteria, BitSet rows, int count) {
+        List<Integer> expected = new ArrayList<>();
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            expected.add(row);
+        }
+        expected.sort((a, b) -> index.compare(criteria, a, b));
+
+        int[] order = index.order(criteria, rows, count);
+        assertEquals(expected.size(), order.length);
+        for (int i = 0; i < order.length; i++) {
+            assertEquals(criteria + " at " + i, (int) expected.get(i), order[i]);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.example.recordmaintenance.TestEmployees.*;
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the columnar EmployeeStore.
+ */
+public class EmployeeStoreTest {
+
+    @Test
+    public void get_roundTripsAllFields() {
+        EmployeeStore store = new EmployeeStore();
+        Employee employee = employee(1, new Random(5));
+        store.upsert(employee);
+
+        Employee stored = store.getByUid("uid-1");
+        assertNotSame(employee, stored);
+        assertTrue(employee.hasSameContent(stored));
+        assertEquals(employee.getCreatedAt(), stored.getCreatedAt());
+        assertEquals(employee.getCreatedBy(), stored.getCreatedBy());
+    }
+
+    @Test
+    public void upsert_skipsUnchangedAndBumpsVersionOnChange() {
+        EmployeeStore store = new EmployeeStore();
+        Random random = new Random(9);
+        Employee employee = employee(1, random);
+        assertTrue(store.upsert(employee));
+        int version = store.getVersion(0);
+
+        assertFalse(store.upsert(store.getByUid("uid-1")));
+        assertEquals(version, store.getVersion(0));
+
+        employee.setDepartment("Legal");
+        assertTrue(store.upsert(employee));
+        assertNotEquals(version, store.getVersion(0));
+        assertEquals("Legal", store.getDepartment(0));
+        assertEquals(store.departmentCodeOf("Legal"), store.getDepartmentCode(0));
+    }
+
+    @Test
+    public void upsert_storesMetadataOnlyChanges() {
+        EmployeeStore store = new EmployeeStore();
+        Employee employee = employee(1, new Random(11));
+        store.upsert(employee);
+        int version = store.getVersion(0);
+
+        employee.setUpdatedAt("2024-03-01T09:30:00Z");
+        assertTrue(store.upsert(employee));
+        assertNotEquals(version, store.getVersion(0));
+        assertEquals("2024-03-01T09:30:00Z", store.getByUid("uid-1").getUpdatedAt());
+    }
+
+    @Test
+    public void remove_compactsAndKeepsRemainingEmployees() {
+        EmployeeStore store = new EmployeeStore();
+        Random random = new Random(13);
+        Set<String> kept = new HashSet<>();
+        addEmployees(store, 300, random);
+        for (int i = 0; i < 300; i++) {
+            if (i % 5 == 0) {
+                kept.add("uid-" + i);
+            } else {
+                store.remove("uid-" + i);
+            }
+        }
+
+        assertEquals(kept.size(), store.size());
+        assertTrue(store.getRowCount() < 300);
+        for (String uid : kept) {
+            int row = store.getRow(uid);
+            assertEquals(uid, store.getUid(row));
+            assertEquals(uid, store.get(row).getUid());
+        }
+    }
+
+    @Test
+    public void joinedDay_parsesPickerAndIsoDates() {
+        EmployeeStore store = new EmployeeStore();
+        Employee picker = employee(1, new Random(1));
+        picker.setJoinedDate("15/01/2024");
+        Employee iso = employee(2, new Random(1));
+        iso.setJoinedDate("2024-01-15");
+        Employee invalid = employee(3, new Random(1));
+        invalid.setJoinedDate("soon");
+        store.upsert(picker);
+        store.upsert(iso);
+        store.upsert(invalid);
+
+        assertEquals(19737, store.getJoinedDay(0)); // 2024-01-15
+        assertEquals(19737, store.getJoinedDay(1));
+        assertEquals(JoinedDates.UNKNOWN, store.getJoinedDay(2));
+        assertEquals("15/01/2024", store.getJoinedDate(0));
+        assertEquals(0, JoinedDates.ofDate(1970, 1, 1));
+        assertEquals(JoinedDates.UNKNOWN, JoinedDates.toEpochDay("29/02/2023"));
+    }
+
+    @Test
+    public void profilePhotoPaths_listsLiveEmployeesOnly() {
+        EmployeeStore store = new EmployeeStore();
+        Random random = new Random(21);
+        for (int i = 0; i < 4; i++) {
+            Employee e = employee(i, random);
+            e.setProfilePhotoPath(i == 2 ? null : "/photos/" + i + ".jpg");
+            store.upsert(e);
+        }
+        store.remove("uid-0");
+
+        List<String> paths = store.getProfilePhotoPaths();
+        assertEquals(2, paths.size());
+        assertTrue(paths.contains("/photos/1.jpg"));
+        assertTrue(paths.contains("/photos/3.jpg"));
+    }
+}
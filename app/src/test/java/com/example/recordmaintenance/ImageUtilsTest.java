@@ -0,0 +1,60 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the sample size chosen when photos are decoded for ingestion and the
+ * lookup of stored photo sizes.
+ */
+public class ImageUtilsTest {
+
+    @Test
+    public void inSampleSize_keepsAtLeastRequestedSize() {
+        // 12 MP camera image down to a 1280 px bound
+        assertEquals(2, ImageUtils.calculateInSampleSize(4000, 3000, 1280, 1280));
+        assertEquals(1, ImageUtils.calculateInSampleSize(1280, 960, 1280, 1280));
+        assertEquals(1, ImageUtils.calculateInSampleSize(800, 600, 1280, 1280));
+        assertEquals(8, ImageUtils.calculateInSampleSize(4000, 3000, 300, 300));
+    }
+
+    @Test
+    public void inSampleSize_ignoresMissingTarget() {
+        assertEquals(1, ImageUtils.calculateInSampleSize(4000, 3000, 0, 0));
+    }
+
+    @Test
+    public void derivativePath_insertsSuffixBeforeExtension() {
+        assertEquals("/p/EMP1_20250101_120000_thumb.jpg",
+                ImageUtils.getDerivativePath("/p/EMP1_20250101_120000.jpg", ImageUtils.PhotoSize.THUMB));
+        assertEquals("/p.d/photo_medium",
+                ImageUtils.getDerivativePath("/p.d/photo", ImageUtils.PhotoSize.MEDIUM));
+        assertEquals("/p/a.jpg", ImageUtils.getDerivativePath("/p/a.jpg", ImageUtils.PhotoSize.FULL));
+    }
+
+    @Test
+    public void photoPathForSize_picksSmallestCoveringSize() throws Exception {
+        File dir = new File(System.getProperty("java.io.tmpdir"), "image-utils-test");
+        dir.mkdirs();
+        File full = new File(dir, "EMP1.jpg");
+        File thumb = new File(dir, "EMP1_thumb.jpg");
+        File medium = new File(dir, "EMP1_medium.jpg");
+        try {
+            full.createNewFile();
+            thumb.createNewFile();
+            medium.createNewFile();
+
+            assertEquals(thumb.getPath(), ImageUtils.getPhotoPathForSize(full.getPath(), 80, 80));
+            assertEquals(thumb.getPath(), ImageUtils.getPhotoPathForSize(full.getPath(), 160, 120));
+            assertEquals(medium.getPath(), ImageUtils.getPhotoPathForSize(full.getPath(), 360, 360));
+            assertEquals(full.getPath(), ImageUtils.getPhotoPathForSize(full.getPath(), 1080, 1920));
+        } finally {
+            full.delete();
+            thumb.delete();
+            medium.delete();
+        }
+    }
+}
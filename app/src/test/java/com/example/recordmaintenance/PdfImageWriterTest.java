@@ -0,0 +1,94 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the structure of PDFs written page by page.
+ */
+public class PdfImageWriterTest {
+
+    private static final byte[] IMAGE = {1, 2, 3, 4};
+
+    @Test
+    public void finish_writesPagesAndTrailer() throws Exception {
+        String pdf = write(3, 2);
+
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+        assertTrue(pdf.contains("/Type /Pages /Kids [6 0 R 9 0 R ] /Count 2"));
+        assertEquals(3, count(pdf, "/Subtype /Image"));
+        assertEquals(2, count(pdf, "/Type /Page /Parent"));
+    }
+
+    @Test
+    public void finish_indexesEveryObject() throws Exception {
+        String pdf = write(5, 2);
+
+        Matcher startXref = Pattern.compile("startxref\n(\\d+)\n").matcher(pdf);
+        assertTrue(startXref.find());
+        int xref = Integer.parseInt(startXref.group(1));
+        assertTrue(pdf.startsWith("xref\n", xref));
+
+        String[] lines = pdf.substring(xref).split("\n");
+        int size = Integer.parseInt(lines[1].split(" ")[1]);
+        assertEquals("0000000000 65535 f ", lines[2]);
+        for (int number = 1; number < size; number++) {
+            String entry = lines[2 + number];
+            assertEquals(20, entry.length() + 1);
+            int offset = Integer.parseInt(entry.substring(0, 10));
+            assertTrue("object " + number, pdf.startsWith(number + " 0 obj\n", offset));
+        }
+    }
+
+    @Test
+    public void addImage_placesFromTopLeft() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfImageWriter writer = new PdfImageWriter(out, 100f, 200f);
+        writer.addImage(8, 5, IMAGE, 10f, 20f, 40f, 25f);
+        writer.finish();
+
+        String pdf = out.toString(StandardCharsets.ISO_8859_1.name());
+        assertTrue(pdf.contains("q 40.00 0 0 25.00 10.00 155.00 cm /Im0 Do Q"));
+        assertTrue(pdf.contains("/MediaBox [0 0 100.00 200.00]"));
+        assertTrue(pdf.contains("/Width 8 /Height 5"));
+    }
+
+    @Test
+    public void finishPage_skipsEmptyPages() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfImageWriter writer = new PdfImageWriter(out, 100f, 100f);
+        writer.finishPage();
+        writer.addImage(1, 1, IMAGE, 0f, 0f, 10f, 10f);
+        writer.finishPage();
+        writer.finish();
+
+        assertEquals(1, writer.getPageCount());
+    }
+
+    /**
+     * Writes the given number of images, a page for each group of imagesPerPage
+     */
+    private static String write(int images, int imagesPerPage) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfImageWriter writer = new PdfImageWriter(out, 595f, 842f);
+        for (int i = 0; i < images; i++) {
+            writer.addImage(2, 2, IMAGE, 0f, 0f, 10f, 10f);
+            if ((i + 1) % imagesPerPage == 0) writer.finishPage();
+        }
+        writer.finish();
+        return out.toString(StandardCharsets.ISO_8859_1.name());
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) count++;
+        return count;
+    }
+}
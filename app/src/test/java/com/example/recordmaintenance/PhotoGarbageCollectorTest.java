@@ -0,0 +1,112 @@
+package com.example.recordmaintenance;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks which files in profile_photos the photo cleanup treats as orphaned and
+ * that it stops at its byte budget.
+ */
+public class PhotoGarbageCollectorTest {
+
+    private static final long NOW = 10 * PhotoGarbageCollector.MIN_ORPHAN_AGE_MS;
+    private static final long OLD = NOW - 2 * PhotoGarbageCollector.MIN_ORPHAN_AGE_MS;
+
+    private File dir;
+
+    @Before
+    public void setUp() {
+        dir = new File(System.getProperty("java.io.tmpdir"), "photo-gc-test");
+        dir.mkdirs();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+    }
+
+    @Test
+    public void photoName_stripsSizeSuffix() {
+        assertEquals("EMP1_20250101_120000.jpg", PhotoGarbageCollector.photoNameOf("EMP1_20250101_120000_thumb.jpg"));
+        assertEquals("EMP1_20250101_120000.jpg", PhotoGarbageCollector.photoNameOf("EMP1_20250101_120000_medium.jpg"));
+        assertEquals("EMP1_20250101_120000.jpg", PhotoGarbageCollector.photoNameOf("EMP1_20250101_120000.jpg"));
+    }
+
+    @Test
+    public void referenceCount_countsEveryEmployee() {
+        PhotoGarbageCollector collector = new PhotoGarbageCollector(
+                Arrays.asList("/data/p/a.jpg", "/data/p/a.jpg", "/data/p/b.jpg", null));
+        assertEquals(2, collector.referenceCount("a.jpg"));
+        assertEquals(2, collector.referenceCount("a_thumb.jpg"));
+        assertEquals(1, collector.referenceCount("b_medium.jpg"));
+        assertEquals(0, collector.referenceCount("c.jpg"));
+    }
+
+    @Test
+    public void collect_deletesOnlyOldUnreferencedFiles() throws IOException {
+        File kept = file("kept.jpg", 10, OLD);
+        File keptThumb = file("kept_thumb.jpg", 10, OLD);
+        File orphan = file("orphan.jpg", 100, OLD);
+        File orphanThumb = file("orphan_thumb.jpg", 20, OLD);
+        File fresh = file("fresh.jpg", 10, NOW);
+        File temp = file("kept.jpg.tmp", 5, OLD);
+
+        PhotoGarbageCollector.Result result = new PhotoGarbageCollector(
+                Arrays.asList(kept.getPath())).collect(dir, NOW, Long.MAX_VALUE);
+
+        assertTrue(kept.exists());
+        assertTrue(keptThumb.exists());
+        assertTrue(fresh.exists());
+        assertFalse(orphan.exists());
+        assertFalse(orphanThumb.exists());
+        assertFalse(temp.exists());
+        assertEquals(6, result.scanned);
+        assertEquals(3, result.deleted);
+        assertEquals(125, result.reclaimedBytes);
+        assertEquals(0, result.remaining);
+    }
+
+    @Test
+    public void collect_withoutReferencesKeepsPhotos() throws IOException {
+        File photo = file("photo.jpg", 10, OLD);
+        File strayThumb = file("gone_thumb.jpg", 10, OLD);
+
+        PhotoGarbageCollector.Result result = new PhotoGarbageCollector(null).collect(dir, NOW, Long.MAX_VALUE);
+
+        assertTrue(photo.exists());
+        assertFalse(strayThumb.exists());
+        assertEquals(1, result.deleted);
+    }
+
+    @Test
+    public void collect_stopsAfterBudgetBatch() throws IOException {
+        int count = PhotoGarbageCollector.BATCH_SIZE * 3;
+        for (int i = 0; i < count; i++) {
+            file("orphan" + i + ".jpg", 10, OLD - i);
+        }
+
+        PhotoGarbageCollector.Result result = new PhotoGarbageCollector(Arrays.<String>asList())
+                .collect(dir, NOW, 10);
+
+        assertEquals(PhotoGarbageCollector.BATCH_SIZE, result.deleted);
+        assertEquals(count - PhotoGarbageCollector.BATCH_SIZE, result.remaining);
+        // Oldest first
+        assertFalse(new File(dir, "orphan" + (count - 1) + ".jpg").exists());
+        assertTrue(new File(dir, "orphan0.jpg").exists());
+    }
+
+    private File file(String name, int length, long lastModified) throws IOException {
+        File file = new File(dir, name);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[length]);
+        }
+        file.setLastModified(lastModified);
+        return file;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.recordmaintenance;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks how content-addressed photo paths are told apart from older photos.
+ */
+public class PhotoStoreTest {
+
+    private static final String HASH = "0123456789abcdef0123456789abcdef";
+
+    @Test
+    public void hashOf_readsContentAddressedNames() {
+        assertEquals(HASH, PhotoStore.hashOf("/data/files/profile_photos/" + HASH + ".jpg"));
+    }
+
+    @Test
+    public void hashOf_rejectsOlderAndDerivedNames() {
+        assertNull(PhotoStore.hashOf("/data/files/profile_photos/EMP1_20250101_120000.jpg"));
+        assertNull(PhotoStore.hashOf("/data/files/profile_photos/" + HASH + "_thumb.jpg"));
+        assertNull(PhotoStore.hashOf("/data/files/profile_photos/" + HASH.toUpperCase() + ".jpg"));
+        assertNull(PhotoStore.hashOf(null));
+    }
+
+    @Test
+    public void toHex_truncatesToLength() {
+        byte[] bytes = {(byte) 0x0f, (byte) 0xa0, (byte) 0xff};
+        assertEquals("0fa0ff", PhotoStore.toHex(bytes, 6));
+        assertEquals("0fa", PhotoStore.toHex(bytes, 3));
+    }
+}
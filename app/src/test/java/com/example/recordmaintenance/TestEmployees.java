@@ -0,0 +1,89 @@
+package com.example.recordmaintenance;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Random employees and store churn shared by the store and index tests, which
+ * check the store's indexes against a brute-force scan of the same rows.
+ */
+final class TestEmployees {
+
+    // Names that differ only in case, blank and missing values, and coarse salary
+    // steps, so sorts meet ties and nulls and filters meet empty values
+    static final String[] NAMES = {"Asha Patil", "asha patil", "Rahul Verma", "Sneha Rao", "Vikram Singh",
+            "Ann Lee", null};
+    static final String[] DEPARTMENTS = {"Engineering", "HR", "Finance", "Sales", " ", null};
+    static final String[] DESIGNATIONS = {"Software Engineer", "Manager", "Analyst", "Intern", null};
+    // Picker and ISO dates, in and out of order
+    static final String[] JOINED_DATES = {"2023-01-10", "15/01/2024", "2024-06-01", "2022-12-31", null};
+
+    private TestEmployees() {
+    }
+
+    /**
+     * An employee with uid "uid-{i}" and every field set from the pools above
+     */
+    static Employee employee(int i, Random random) {
+        Employee e = new Employee();
+        e.setUid("uid-" + i);
+        e.setEmpId(String.format("MAN25%04d", 1000 + i));
+        String name = pick(random, NAMES);
+        e.setEmpName(name);
+        e.setEmpEmail(name == null || random.nextInt(10) == 0 ? null
+                : name.toLowerCase().replace(' ', '.') + i + "@example.com");
+        e.setRole("employee");
+        e.setDepartment(pick(random, DEPARTMENTS));
+        e.setDesignation(pick(random, DESIGNATIONS));
+        e.setJoinedDate(pick(random, JOINED_DATES));
+        e.setSalary(20000 + random.nextInt(20) * 5000);
+        e.setCity("Pune");
+        e.setState("Maharashtra");
+        e.setCountry("India");
+        e.setPasswordChanged(random.nextBoolean());
+        e.setCreatedAt("2024-01-15T10:00:00Z");
+        e.setCreatedBy("admin-uid");
+        return e;
+    }
+
+    /**
+     * Adds employees uid-0 to uid-{count - 1}
+     */
+    static void addEmployees(EmployeeStore store, int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            store.upsert(employee(i, random));
+        }
+    }
+
+    /**
+     * Upserts or, one time in four, removes random employees among uid-0 to
+     * uid-{uidRange - 1}, as live sync deltas would
+     */
+    static void applyRandomChanges(EmployeeStore store, int changes, int uidRange, Random random) {
+        for (int i = 0; i < changes; i++) {
+            int id = random.nextInt(uidRange);
+            if (random.nextInt(4) == 0) {
+                store.remove("uid-" + id);
+            } else {
+                store.upsert(employee(id, random));
+            }
+        }
+    }
+
+    /**
+     * The live rows whose employee matches, found by checking every row
+     */
+    static BitSet rowsMatching(EmployeeStore store, Predicate<Employee> matching) {
+        BitSet rows = new BitSet();
+        for (int row = 0; row < store.getRowCount(); row++) {
+            Employee e = store.get(row);
+            if (e != null && matching.test(e)) rows.set(row);
+        }
+        return rows;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
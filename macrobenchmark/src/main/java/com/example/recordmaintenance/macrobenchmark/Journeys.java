@@ -0,0 +1,59 @@
+package com.example.recordmaintenance.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * User journeys shared by the benchmarks. The app under test is the benchmark
+ * build type, whose fake repositories sign in automatically and serve a seeded
+ * roster, so LoginActivity forwards straight to the flavor's home screen.
+ */
+final class Journeys {
+
+    static final String PACKAGE_NAME = BuildConfig.TARGET_PACKAGE;
+    static final boolean IS_ADMIN = "admin".equals(BuildConfig.FLAVOR);
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    private Journeys() {}
+
+    /**
+     * Launch LoginActivity and wait for MainActivity's list (admin) or the
+     * profile screen (employee)
+     */
+    static void startHome(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        UiDevice device = scope.getDevice();
+        if (IS_ADMIN) {
+            UiObject2 list = device.wait(Until.findObject(By.res(PACKAGE_NAME, "recyclerView")), TIMEOUT_MS);
+            if (list == null) throw new AssertionError("Employee list not shown");
+            list.wait(Until.hasObject(By.res(PACKAGE_NAME, "tvEmpName")), TIMEOUT_MS);
+        } else {
+            if (!device.wait(Until.hasObject(By.res(PACKAGE_NAME, "tvEmployeeName")), TIMEOUT_MS)) {
+                throw new AssertionError("Profile not shown");
+            }
+        }
+    }
+
+    static UiObject2 employeeList(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = device.findObject(By.res(PACKAGE_NAME, "recyclerView"));
+        // Keep flings clear of the system gesture areas
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        return list;
+    }
+
+    /**
+     * Open the toolbar SearchView and return its text field
+     */
+    static UiObject2 openSearch(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        device.findObject(By.res(PACKAGE_NAME, "action_search")).click();
+        UiObject2 field = device.wait(Until.findObject(By.res(PACKAGE_NAME, "search_src_text")), TIMEOUT_MS);
+        if (field == null) throw new AssertionError("Search field not shown");
+        return field;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.recordmaintenance.macrobenchmark;
+
+import static org.junit.Assume.assumeTrue;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiObject2;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame timing while flinging through the seeded employee list in MainActivity
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScrollBenchmark {
+
+    private static final int ITERATIONS = 10;
+    private static final int FLINGS = 5;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void flingEmployeeList() {
+        assumeTrue("The employee list is admin only", Journeys.IS_ADMIN);
+
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    Journeys.startHome(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiObject2 list = Journeys.employeeList(scope);
+                    for (int i = 0; i < FLINGS; i++) {
+                        list.fling(Direction.DOWN);
+                    }
+                    list.fling(Direction.UP);
+                    scope.getDevice().waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+}
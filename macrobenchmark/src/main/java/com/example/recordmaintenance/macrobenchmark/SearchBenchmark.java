@@ -0,0 +1,74 @@
+package com.example.recordmaintenance.macrobenchmark;
+
+import static org.junit.Assume.assumeTrue;
+
+import android.os.SystemClock;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.UiObject2;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Latency from typing into the toolbar SearchView to the filtered list being on
+ * screen, read from the trace sections EmployeeAdapter emits, plus the filter
+ * run itself and the frames drawn meanwhile
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchBenchmark {
+
+    private static final int ITERATIONS = 10;
+    private static final long SETTLE_MS = 1_000; // Past the search debounce
+    private static final String[] QUERIES = {"Eng", "Priya", "EMP012", "Pune", ""};
+
+    // Must match EmployeeAdapter.TRACE_SEARCH_TO_RENDER and TRACE_FILTER
+    private static final String SEARCH_TO_RENDER = "EmployeeAdapter#searchToRender";
+    private static final String FILTER = "EmployeeAdapter#filter";
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void searchQueryToRender() {
+        assumeTrue("Search is admin only", Journeys.IS_ADMIN);
+
+        List<Metric> metrics = Arrays.asList(
+                new TraceSectionMetric(SEARCH_TO_RENDER, TraceSectionMetric.Mode.Average.INSTANCE),
+                new TraceSectionMetric(FILTER, TraceSectionMetric.Mode.Average.INSTANCE),
+                new FrameTimingMetric());
+
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                metrics,
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    Journeys.startHome(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiObject2 field = Journeys.openSearch(scope);
+                    for (String query : QUERIES) {
+                        field.setText(query);
+                        scope.getDevice().waitForIdle();
+                        SystemClock.sleep(SETTLE_MS);
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+}
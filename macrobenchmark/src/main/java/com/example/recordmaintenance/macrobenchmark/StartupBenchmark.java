@@ -0,0 +1,55 @@
+package com.example.recordmaintenance.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Time from launching LoginActivity to the flavor's home screen. Time to full
+ * display ends when MainActivity reports the first employees as listed.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStart() {
+        measureStartup(StartupMode.COLD);
+    }
+
+    @Test
+    public void warmStart() {
+        measureStartup(StartupMode.WARM);
+    }
+
+    private void measureStartup(StartupMode startupMode) {
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                new CompilationMode.Partial(),
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.startHome(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}